@@ -1,11 +1,101 @@
 package trackers;
 
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.Flushable;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.URLDecoder;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
 
 enum Role { QA, DEV, MANAGER }
 enum Severity { LOW, MEDIUM, HIGH, CRITICAL }
-enum Status { NEW, IN_PROGRESS, RESOLVED, CLOSED }
+enum Status {
+    NEW, IN_PROGRESS, RESOLVED, CLOSED;
+
+    private int allowed;
+
+    static {
+        allow(NEW, IN_PROGRESS, CLOSED);
+        allow(IN_PROGRESS, RESOLVED, CLOSED);
+        allow(RESOLVED, IN_PROGRESS, CLOSED);
+        allow(CLOSED, IN_PROGRESS);
+    }
+
+    private static void allow(Status from, Status... to) {
+        for (Status t : to) from.allowed |= 1 << t.ordinal();
+    }
+
+    public boolean canTransitionTo(Status to) {
+        return this == to || (allowed & (1 << to.ordinal())) != 0;
+    }
+}
+
+enum TransitionResult { APPLIED, UNCHANGED, REJECTED, NOT_FOUND, STALE }
+
+interface EpochClock {
+    EpochClock SYSTEM = () -> {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    };
+
+    long epochNanos();
+
+    static LocalDateTime toLocalDateTime(long epochNanos) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(0, epochNanos), ZoneId.systemDefault());
+    }
+}
 
 class User {
     private String id;
@@ -33,7 +123,7 @@ class User {
     public void setEmail(String email) { this.email = email; }
     public void setBio(String bio) { this.bio = bio; }
 
-    public boolean approveIssue(Issue issue) { return false; }
+    TransitionResult approve(Issue issue) { return TransitionResult.REJECTED; }
 
     public String toString() { return name + " (" + role + ")"; }
 }
@@ -44,57 +134,343 @@ class Manager extends User {
     }
 
     @Override
-    public boolean approveIssue(Issue issue) {
-        if (issue.getSeverity() == Severity.CRITICAL) {
-            issue.setStatus(Status.IN_PROGRESS);
-            return true;
+    TransitionResult approve(Issue issue) {
+        return issue.update(Issue.ANY_VERSION, st -> st.getSeverity() != Severity.CRITICAL ? null
+                : st.getStatus() == Status.IN_PROGRESS ? st
+                : st.getStatus().canTransitionTo(Status.IN_PROGRESS) ? st.withStatus(Status.IN_PROGRESS) : null);
+    }
+}
+
+final class TagDictionary {
+    private static final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private static volatile String[] names = new String[64];
+    private static int size;
+
+    private TagDictionary() {}
+
+    static int intern(String tag) {
+        Integer id = ids.get(tag);
+        if (id != null) return id;
+        synchronized (TagDictionary.class) {
+            id = ids.get(tag);
+            if (id != null) return id;
+            String[] n = names;
+            if (size == n.length) n = names = Arrays.copyOf(n, n.length * 2);
+            n[size] = tag;
+            names = n;
+            ids.put(tag, size);
+            return size++;
         }
-        return false;
     }
+
+    static int lookup(String tag) {
+        Integer id = ids.get(tag);
+        return id == null ? -1 : id;
+    }
+
+    static String name(int id) { return names[id]; }
+
+    static int size() { return ids.size(); }
 }
 
-abstract class Issue {
-    private String issueId;
-    private String title;
-    private String description;
-    private Severity severity;
-    private Status status;
-    private User assignee;
-    private List<String> attachments;
-    private Set<String> tags;
-    private LocalDateTime createdAt;
+class ReportWriter implements Flushable {
+    private static final String EOL = System.lineSeparator();
 
-    public Issue(String issueId, String title, String description, Severity severity) {
-        this.issueId = issueId;
+    private final Writer out;
+    private final char[] buf = new char[1 << 13];
+    private final char[] digits = new char[20];
+    private int pos;
+
+    public ReportWriter(Writer out) { this.out = out; }
+
+    public ReportWriter(OutputStream out) { this(new OutputStreamWriter(out, Charset.defaultCharset())); }
+
+    public ReportWriter append(String s) {
+        if (s == null) s = "null";
+        for (int from = 0, len = s.length(); from < len; ) {
+            if (pos == buf.length) drain();
+            int n = Math.min(len - from, buf.length - pos);
+            s.getChars(from, from + n, buf, pos);
+            pos += n;
+            from += n;
+        }
+        return this;
+    }
+
+    public ReportWriter append(char c) {
+        if (pos == buf.length) drain();
+        buf[pos++] = c;
+        return this;
+    }
+
+    public ReportWriter append(long v) {
+        if (v == Long.MIN_VALUE) return append(Long.toString(v));
+        if (v < 0) {
+            append('-');
+            v = -v;
+        }
+        int n = digits.length;
+        do {
+            digits[--n] = (char) ('0' + v % 10);
+            v /= 10;
+        } while (v != 0);
+        while (n < digits.length) append(digits[n++]);
+        return this;
+    }
+
+    public ReportWriter append(Enum<?> e) { return append(e.name()); }
+
+    public ReportWriter newLine() { return append(EOL); }
+
+    public ReportWriter issueLine(Issue i) {
+        IssueState st = i.getState();
+        return append(i.getIssueId()).append(' ').append(st.getTitle()).append(' ')
+                .append(st.getSeverity()).append(' ').append(st.getStatus()).newLine();
+    }
+
+    private void drain() {
+        try {
+            out.write(buf, 0, pos);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        pos = 0;
+    }
+
+    @Override
+    public void flush() {
+        drain();
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
+
+interface IssueListener {
+    default void textChanged(Issue i, String oldTitle, String oldDescription) {}
+    default void stateChanged(Issue i, IssueState old, IssueState now) {}
+    default void tagged(Issue i, String tag) {}
+    default void attached(Issue i, String attachment) {}
+    default void projectChanged(Issue i) {}
+}
+
+final class IssueState {
+    private final long version;
+    private final String title;
+    private final String description;
+    private final Severity severity;
+    private final Status status;
+    private final User assignee;
+
+    IssueState(long version, String title, String description, Severity severity, Status status, User assignee) {
+        this.version = version;
         this.title = title;
         this.description = description;
         this.severity = severity;
-        this.status = Status.NEW;
-        this.attachments = new ArrayList<>();
-        this.tags = new HashSet<>();
-        this.createdAt = LocalDateTime.now();
+        this.status = status;
+        this.assignee = assignee;
     }
 
-    public String getIssueId() { return issueId; }
+    public long getVersion() { return version; }
     public String getTitle() { return title; }
     public String getDescription() { return description; }
     public Severity getSeverity() { return severity; }
     public Status getStatus() { return status; }
     public User getAssignee() { return assignee; }
-    public List<String> getAttachments() { return Collections.unmodifiableList(attachments); }
-    public Set<String> getTags() { return Collections.unmodifiableSet(tags); }
-    public LocalDateTime getCreatedAt() { return createdAt; }
 
-    public void setTitle(String title) { this.title = title; }
-    public void setDescription(String description) { this.description = description; }
-    public void setSeverity(Severity severity) { this.severity = severity; }
-    public void setStatus(Status status) { this.status = status; }
+    IssueState withText(String t, String d) { return new IssueState(version + 1, t, d, severity, status, assignee); }
+    IssueState withSeverity(Severity s) { return new IssueState(version + 1, title, description, s, status, assignee); }
+    IssueState withStatus(Status s) { return new IssueState(version + 1, title, description, severity, s, assignee); }
+    IssueState withAssignee(User u, Status s) { return new IssueState(version + 1, title, description, severity, s, u); }
+}
+
+abstract class Issue {
+    public static final long ANY_VERSION = -1;
+
+    private static final VarHandle STATE;
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(Issue.class, "state", IssueState.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private String issueId;
+    private volatile IssueState state;
+    private List<String> attachments;
+    private int[] tags;
+    private long createdAt;
+    private volatile Project project;
+    private volatile IssueListener listener;
+    Severity indexedSeverity;
+    Status indexedStatus;
+    User workloadUser;
+    Status workloadStatus;
+    Severity workloadSeverity;
+    int storeRow = -1;
+
+    public Issue(String issueId, String title, String description, Severity severity) {
+        this(issueId, title, description, severity, EpochClock.SYSTEM.epochNanos());
+    }
+
+    public Issue(String issueId, String title, String description, Severity severity, long createdAtNanos) {
+        this.issueId = issueId;
+        this.state = new IssueState(0, title, description, severity, Status.NEW, null);
+        this.createdAt = createdAtNanos;
+    }
+
+    public String getIssueId() { return issueId; }
+    public IssueState getState() { return state; }
+    public long getVersion() { return state.getVersion(); }
+    public String getTitle() { return state.getTitle(); }
+    public String getDescription() { return state.getDescription(); }
+    public Severity getSeverity() { return state.getSeverity(); }
+    public Status getStatus() { return state.getStatus(); }
+    public User getAssignee() { return state.getAssignee(); }
+    public synchronized List<String> getAttachments() { return attachments == null ? List.of() : List.copyOf(attachments); }
+
+    public synchronized Set<String> getTags() {
+        if (tags == null) return Set.of();
+        Set<String> out = new LinkedHashSet<>(tags.length * 2);
+        for (int t : tags) out.add(TagDictionary.name(t));
+        return Collections.unmodifiableSet(out);
+    }
+
+    public synchronized boolean hasTag(String t) {
+        int id = TagDictionary.lookup(t);
+        return id >= 0 && tags != null && Arrays.binarySearch(tags, id) >= 0;
+    }
+    public LocalDateTime getCreatedAt() { return EpochClock.toLocalDateTime(createdAt); }
+    public long getCreatedAtNanos() { return createdAt; }
+    public long getCreatedAtMillis() { return Math.floorDiv(createdAt, 1_000_000L); }
+    public Project getProject() { return project; }
+
+    public synchronized void setTitle(String title) {
+        update(ANY_VERSION, st -> st.withText(title, st.getDescription()));
+    }
+
+    public synchronized void setDescription(String description) {
+        update(ANY_VERSION, st -> st.withText(st.getTitle(), description));
+    }
+
+    public void setSeverity(Severity severity) {
+        update(ANY_VERSION, st -> st.withSeverity(severity));
+    }
+
+    public TransitionResult setSeverity(Severity severity, long expectedVersion) {
+        return update(expectedVersion, st -> st.getSeverity() == severity ? st : st.withSeverity(severity));
+    }
+
+    public void setStatus(Status status) {
+        if (setStatus(status, ANY_VERSION) == TransitionResult.REJECTED)
+            throw new IllegalStateException(issueId + ": " + getStatus() + " -> " + status);
+    }
+
+    public TransitionResult setStatus(Status status, long expectedVersion) {
+        return update(expectedVersion, st -> st.getStatus() == status ? st
+                : st.getStatus().canTransitionTo(status) ? st.withStatus(status) : null);
+    }
+
+    public void assignTo(User user) {
+        update(ANY_VERSION, st -> st.withAssignee(user, st.getStatus()));
+    }
+
+    // Assignee and status land in one version, so no reader sees one without the other.
+    public void assignTo(User user, Status status) {
+        if (assignTo(user, status, ANY_VERSION) == TransitionResult.REJECTED)
+            throw new IllegalStateException(issueId + ": " + getStatus() + " -> " + status);
+    }
+
+    public TransitionResult assignTo(User user, Status status, long expectedVersion) {
+        return update(expectedVersion, st -> st.getStatus() == status && st.getAssignee() == user ? st
+                : st.getStatus().canTransitionTo(status) ? st.withAssignee(user, status) : null);
+    }
+
+    // Commits by CAS: a change returning null is rejected and one returning the current state is a no-op that
+    // keeps the version; with an expected version, any intervening commit makes the call fail fast as STALE
+    // instead of retrying. Listeners get the exact old and new states, but only in order if committers on one
+    // issue are serialized. TrackerService does that with its stripe locks, so mutations made through the
+    // service are not lock-free: they block on the issue's stripe, and the CAS only ever races direct callers.
+    TransitionResult update(long expectedVersion, UnaryOperator<IssueState> change) {
+        while (true) {
+            IssueState old = state;
+            if (expectedVersion != ANY_VERSION && old.getVersion() != expectedVersion) return TransitionResult.STALE;
+            IssueState now = change.apply(old);
+            if (now == null) return TransitionResult.REJECTED;
+            if (now == old) return TransitionResult.UNCHANGED;
+            if (STATE.compareAndSet(this, old, now)) {
+                published(old, now);
+                return TransitionResult.APPLIED;
+            }
+        }
+    }
+
+    private void published(IssueState old, IssueState now) {
+        Project p = project;
+        if (p != null && (old.getSeverity() != now.getSeverity() || old.getStatus() != now.getStatus())) p.reindex(this);
+        IssueListener l = listener;
+        if (l == null) return;
+        if (old.getTitle() != now.getTitle() || old.getDescription() != now.getDescription())
+            l.textChanged(this, old.getTitle(), old.getDescription());
+        if (old.getSeverity() != now.getSeverity() || old.getStatus() != now.getStatus() || old.getAssignee() != now.getAssignee())
+            l.stateChanged(this, old, now);
+    }
+
+    public void addAttachment(String a) {
+        synchronized (this) {
+            if (attachments == null) attachments = new ArrayList<>(2);
+            attachments.add(a);
+        }
+        IssueListener l = listener;
+        if (l != null) l.attached(this, a);
+    }
+
+    public void addTag(String t) {
+        if (!insertTag(TagDictionary.intern(t))) return;
+        IssueListener l = listener;
+        if (l != null) l.tagged(this, t);
+    }
+
+    private synchronized boolean insertTag(int id) {
+        if (tags == null) {
+            tags = new int[] { id };
+            return true;
+        }
+        int at = Arrays.binarySearch(tags, id);
+        if (at >= 0) return false;
+        at = -at - 1;
+        int[] grown = new int[tags.length + 1];
+        System.arraycopy(tags, 0, grown, 0, at);
+        grown[at] = id;
+        System.arraycopy(tags, at, grown, at + 1, tags.length - at);
+        tags = grown;
+        return true;
+    }
+
+    void setProject(Project p) {
+        this.project = p;
+        IssueListener l = listener;
+        if (l != null) l.projectChanged(this);
+    }
+    void setListener(IssueListener l) { this.listener = l; }
+    void restoreStatus(Status s) {
+        IssueState old;
+        do {
+            old = state;
+        } while (!STATE.compareAndSet(this, old, old.withStatus(s)));
+    }
 
-    public void assignTo(User user) { this.assignee = user; }
-    public void addAttachment(String a) { attachments.add(a); }
-    public void addTag(String t) { tags.add(t); }
+    public void display() {
+        ReportWriter w = new ReportWriter(System.out);
+        writeTo(w);
+        w.flush();
+    }
 
-    public abstract void display();
+    public abstract void writeTo(ReportWriter w);
 }
 
 class Bug extends Issue {
@@ -102,9 +478,15 @@ class Bug extends Issue {
         super(issueId, title, description, severity);
     }
 
+    public Bug(String issueId, String title, String description, Severity severity, long createdAtNanos) {
+        super(issueId, title, description, severity, createdAtNanos);
+    }
+
     @Override
-    public void display() {
-        System.out.println("[BUG] " + getIssueId() + " " + getTitle() + " " + getStatus() + " " + getSeverity());
+    public void writeTo(ReportWriter w) {
+        IssueState st = getState();
+        w.append("[BUG] ").append(getIssueId()).append(' ').append(st.getTitle()).append(' ')
+                .append(st.getStatus()).append(' ').append(st.getSeverity()).newLine();
     }
 }
 
@@ -113,150 +495,3032 @@ class Task extends Issue {
         super(issueId, title, description, severity);
     }
 
+    public Task(String issueId, String title, String description, Severity severity, long createdAtNanos) {
+        super(issueId, title, description, severity, createdAtNanos);
+    }
+
     @Override
-    public void display() {
-        System.out.println("[TASK] " + getIssueId() + " " + getTitle() + " " + getStatus() + " " + getSeverity());
+    public void writeTo(ReportWriter w) {
+        IssueState st = getState();
+        w.append("[TASK] ").append(getIssueId()).append(' ').append(st.getTitle()).append(' ')
+                .append(st.getStatus()).append(' ').append(st.getSeverity()).newLine();
+    }
+}
+
+class IssueSpec {
+    private String issueId;
+    private String title;
+    private String description;
+    private Severity severity;
+    private String type;
+
+    public IssueSpec(String issueId, String title, String description, Severity severity, String type) {
+        this.issueId = issueId;
+        this.title = title;
+        this.description = description;
+        this.severity = severity;
+        this.type = type;
+    }
+
+    public IssueSpec(String issueId, String title, String description, Severity severity) {
+        this(issueId, title, description, severity, "bug");
+    }
+
+    public String getIssueId() { return issueId; }
+    public String getTitle() { return title; }
+    public String getDescription() { return description; }
+    public Severity getSeverity() { return severity; }
+    public String getType() { return type; }
+}
+
+class DashboardSnapshot {
+    private static final int STATUSES = Status.values().length;
+
+    private final long[] counts;
+
+    DashboardSnapshot(long[] counts) { this.counts = counts.clone(); }
+
+    public long count(Severity sv, Status st) { return counts[sv.ordinal() * STATUSES + st.ordinal()]; }
+
+    public long count(Severity sv) {
+        long n = 0;
+        for (Status st : Status.values()) n += count(sv, st);
+        return n;
+    }
+
+    public long count(Status st) {
+        long n = 0;
+        for (Severity sv : Severity.values()) n += count(sv, st);
+        return n;
     }
+
+    public long total() {
+        long n = 0;
+        for (long c : counts) n += c;
+        return n;
+    }
+}
+
+class BacklogSnapshot extends AbstractList<Issue> implements RandomAccess {
+    private final long version;
+    final Issue[] issues;
+
+    BacklogSnapshot(long version, Issue[] issues) {
+        this.version = version;
+        this.issues = issues;
+    }
+
+    public long getVersion() { return version; }
+
+    @Override
+    public Issue get(int index) { return issues[index]; }
+
+    @Override
+    public int size() { return issues.length; }
 }
 
 class Project {
+    private static final int STATUSES = Status.values().length;
+
     private String projectId;
     private String name;
     private String repoUrl;
-    private List<Issue> backlog;
-    private List<User> team;
+    private Set<Issue> backlog;
+    private Map<Severity, Set<Issue>> bySeverity;
+    private long[] counts;
+    private Set<User> team;
+    private int teamVersion;
     private String description;
-    private LocalDateTime createdAt;
+    private long createdAt;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile long version;
+    private volatile BacklogSnapshot published = new BacklogSnapshot(0, new Issue[0]);
+    private final ThreadLocal<long[]> written = ThreadLocal.withInitial(() -> new long[1]);
 
     public Project(String projectId, String name, String repoUrl) {
+        this(projectId, name, repoUrl, EpochClock.SYSTEM.epochNanos());
+    }
+
+    public Project(String projectId, String name, String repoUrl, long createdAtNanos) {
         this.projectId = projectId;
         this.name = name;
         this.repoUrl = repoUrl;
-        this.backlog = new ArrayList<>();
-        this.team = new ArrayList<>();
+        this.backlog = new LinkedHashSet<>();
+        this.bySeverity = new EnumMap<>(Severity.class);
+        for (Severity s : Severity.values()) bySeverity.put(s, new LinkedHashSet<>());
+        this.counts = new long[Severity.values().length * STATUSES];
+        this.team = new LinkedHashSet<>();
         this.description = "";
-        this.createdAt = LocalDateTime.now();
+        this.createdAt = createdAtNanos;
     }
 
     public String getProjectId() { return projectId; }
     public String getName() { return name; }
     public String getRepoUrl() { return repoUrl; }
-    public List<Issue> getBacklog() { return Collections.unmodifiableList(backlog); }
-    public List<User> getTeam() { return Collections.unmodifiableList(team); }
+    public String getDescription() { return description; }
+    public LocalDateTime getCreatedAt() { return EpochClock.toLocalDateTime(createdAt); }
+    public long getCreatedAtNanos() { return createdAt; }
 
     public void setDescription(String d) { this.description = d; }
-    public void addUser(User u) { team.add(u); }
-    public void removeUser(User u) { team.remove(u); }
-    public void addIssue(Issue i) { backlog.add(i); }
-    public void removeIssue(Issue i) { backlog.remove(i); }
 
-    public List<Issue> listBySeverity(Severity s) {
-        List<Issue> out = new ArrayList<>();
-        for (Issue i : backlog) if (i.getSeverity() == s) out.add(i);
-        return out;
+    public List<User> getTeam() {
+        lock.lock();
+        try {
+            return List.copyOf(team);
+        } finally {
+            lock.unlock();
+        }
     }
 
-    public String toString() { return name + " [" + projectId + "]"; }
-}
+    public int getTeamVersion() {
+        lock.lock();
+        try {
+            return teamVersion;
+        } finally {
+            lock.unlock();
+        }
+    }
 
-class TrackerService {
-    private Map<String, Project> projects = new HashMap<>();
-    private Map<String, User> users = new HashMap<>();
-    private Map<String, Issue> issues = new HashMap<>();
+    public void addUser(User u) {
+        lock.lock();
+        try {
+            if (team.add(u)) teamVersion++;
+        } finally {
+            lock.unlock();
+        }
+    }
 
-    public User createUser(String id, String name, Role role, String email) {
-        User u = role == Role.MANAGER ? new Manager(id, name, email) : new User(id, name, role, email);
-        users.put(id, u);
-        return u;
+    public void removeUser(User u) {
+        lock.lock();
+        try {
+            if (team.remove(u)) teamVersion++;
+        } finally {
+            lock.unlock();
+        }
     }
 
-    public Project createProject(String pid, String name, String repoUrl) {
-        Project p = new Project(pid, name, repoUrl);
-        projects.put(pid, p);
-        return p;
+    // Never fails mid-iteration. Writers only bump the version; the next reader to find the published copy stale
+    // rebuilds it, so a burst of writes costs one copy. While a writer holds the lock the reader gets the last
+    // published version instead of waiting, unless that version predates one of the reader's own writes.
+    public BacklogSnapshot getBacklog() {
+        BacklogSnapshot s = published;
+        if (s.getVersion() == version) return s;
+        if (!lock.tryLock()) {
+            if (s.getVersion() >= written.get()[0]) return s;
+            lock.lock();
+        }
+        try {
+            s = published;
+            if (s.getVersion() != version) published = s = new BacklogSnapshot(version, backlog.toArray(new Issue[0]));
+            return s;
+        } finally {
+            lock.unlock();
+        }
     }
 
-    public Issue createIssue(String issueId, String title, String desc, Severity sev, String type) {
-        Issue i = "task".equalsIgnoreCase(type) ? new Task(issueId, title, desc, sev) : new Bug(issueId, title, desc, sev);
-        issues.put(issueId, i);
-        return i;
+    public void addIssue(Issue i) {
+        Project prev = i.getProject();
+        if (prev == this) return;
+        if (prev != null) prev.removeIssue(i);
+        lock.lock();
+        try {
+            backlog.add(i);
+            i.setProject(this);
+            index(i);
+            written.get()[0] = ++version;
+        } finally {
+            lock.unlock();
+        }
     }
 
-    public Issue createIssue(String issueId, String title, String desc, Severity sev) {
-        return createIssue(issueId, title, desc, sev, "bug");
+    public void addIssues(Collection<? extends Issue> batch) {
+        lock.lock();
+        try {
+            if (batch.size() > backlog.size()) {
+                Set<Issue> grown = new LinkedHashSet<>((int) ((backlog.size() + batch.size()) / 0.75f) + 1);
+                grown.addAll(backlog);
+                backlog = grown;
+            }
+            for (Issue i : batch) {
+                if (i.getProject() != null) continue;
+                backlog.add(i);
+                i.setProject(this);
+                index(i);
+            }
+            written.get()[0] = ++version;
+        } finally {
+            lock.unlock();
+        }
     }
 
-    public void attachToIssue(String issueId, String attachment) {
-        Issue i = issues.get(issueId);
-        if (i != null) i.addAttachment(attachment);
+    public void removeIssue(Issue i) {
+        lock.lock();
+        try {
+            if (i.getProject() != this) return;
+            backlog.remove(i);
+            unindex(i);
+            i.setProject(null);
+            written.get()[0] = ++version;
+        } finally {
+            lock.unlock();
+        }
     }
 
-    public void tagIssue(String issueId, String tag) {
-        Issue i = issues.get(issueId);
-        if (i != null) i.addTag(tag);
+    void reindex(Issue i) {
+        lock.lock();
+        try {
+            if (i.getProject() != this) return;
+            IssueState st = i.getState();
+            if (i.indexedSeverity == st.getSeverity() && i.indexedStatus == st.getStatus()) return;
+            unindex(i);
+            index(i);
+        } finally {
+            lock.unlock();
+        }
     }
 
-    public boolean assignIssue(String issueId, String userId) {
-        Issue i = issues.get(issueId);
-        User u = users.get(userId);
-        if (i != null && u != null) {
-            i.assignTo(u);
-            i.setStatus(Status.IN_PROGRESS);
-            return true;
+    private void index(Issue i) {
+        IssueState st = i.getState();
+        i.indexedSeverity = st.getSeverity();
+        i.indexedStatus = st.getStatus();
+        bySeverity.get(i.indexedSeverity).add(i);
+        counts[slot(i.indexedSeverity, i.indexedStatus)]++;
+    }
+
+    private void unindex(Issue i) {
+        bySeverity.get(i.indexedSeverity).remove(i);
+        counts[slot(i.indexedSeverity, i.indexedStatus)]--;
+    }
+
+    private static int slot(Severity sv, Status st) { return sv.ordinal() * STATUSES + st.ordinal(); }
+
+    public DashboardSnapshot dashboard() {
+        lock.lock();
+        try {
+            return new DashboardSnapshot(counts);
+        } finally {
+            lock.unlock();
         }
-        return false;
     }
 
-    public boolean changeStatus(String issueId, Status s) {
-        Issue i = issues.get(issueId);
-        if (i != null) {
-            i.setStatus(s);
-            return true;
+    public List<Issue> listBySeverity(Severity s) {
+        lock.lock();
+        try {
+            return new ArrayList<>(bySeverity.get(s));
+        } finally {
+            lock.unlock();
         }
-        return false;
     }
 
-    public List<Issue> listBySeverity(String projectId, Severity s) {
-        Project p = projects.get(projectId);
-        if (p == null) return Collections.emptyList();
-        return p.listBySeverity(s);
+    public String toString() { return name + " [" + projectId + "]"; }
+}
+
+// append() hands back a sequence number and await() blocks until an fsync has covered it. Concurrent waiters
+// form a group: one of them drains the buffer and calls force() outside the append monitor, and that single
+// fsync makes the whole group durable while new records keep being appended behind it.
+// With syncEvery > 1 only every syncEvery-th record (and the flusher) waits, so a successful mutating call
+// is NOT durable: up to syncEvery - 1 records, or flushIntervalMillis of them, can be lost on a crash.
+class Journal implements Closeable {
+    static final byte CREATE_USER = 1;
+    static final byte CREATE_PROJECT = 2;
+    static final byte CREATE_BUG = 3;
+    static final byte CREATE_TASK = 4;
+    static final byte ASSIGN_ISSUE = 5;
+    static final byte CHANGE_STATUS = 6;
+    static final byte TAG_ISSUE = 7;
+    static final byte ATTACH_TO_ISSUE = 8;
+    static final byte ADD_ISSUE_TO_PROJECT = 9;
+    static final byte ADD_USER_TO_PROJECT = 10;
+    static final byte SET_SEVERITY = 11;
+
+    private static final int HEADER = 8;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+    private final CRC32 crc = new CRC32();
+    private final int syncEvery;
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private int unsynced;
+    private long appended;
+    private volatile long durable;
+    private Thread flusher;
+
+    Journal(Path path, long validLength, int syncEvery, long flushIntervalMillis) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.syncEvery = Math.max(1, syncEvery);
+        channel.truncate(validLength);
+        channel.position(validLength);
+        if (flushIntervalMillis > 0) {
+            flusher = new Thread(() -> {
+                try {
+                    while (!Thread.currentThread().isInterrupted()) {
+                        Thread.sleep(flushIntervalMillis);
+                        sync();
+                    }
+                } catch (InterruptedException | UncheckedIOException e) {
+                    // closed
+                }
+            }, "journal-flusher");
+            flusher.setDaemon(true);
+            flusher.start();
+        }
     }
 
-    public void addIssueToProject(String projectId, Issue i) {
-        Project p = projects.get(projectId);
-        if (p != null) p.addIssue(i);
+    // Returns the sequence number to await(), or 0 when this record need not be waited for.
+    public synchronized long append(byte op, int code, String... fields) {
+        byte[][] encoded = new byte[fields.length][];
+        int len = 3;
+        for (int n = 0; n < fields.length; n++) {
+            if (fields[n] != null) encoded[n] = fields[n].getBytes(StandardCharsets.UTF_8);
+            len += 4 + (encoded[n] == null ? 0 : encoded[n].length);
+        }
+        ByteBuffer rec = HEADER + len <= buffer.capacity() ? reserve(HEADER + len) : ByteBuffer.allocate(HEADER + len);
+        int start = rec.position();
+        rec.putInt(len).putInt(0).put(op).put((byte) code).put((byte) fields.length);
+        for (byte[] f : encoded) {
+            if (f == null) {
+                rec.putInt(-1);
+            } else {
+                rec.putInt(f.length).put(f);
+            }
+        }
+        crc.reset();
+        crc.update(rec.array(), start + HEADER, len);
+        rec.putInt(start + 4, (int) crc.getValue());
+        try {
+            if (rec != buffer) {
+                drain();
+                write(rec.flip());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long seq = ++appended;
+        return ++unsynced >= syncEvery ? seq : 0;
     }
 
-    public void addUserToProject(String projectId, User u) {
-        Project p = projects.get(projectId);
-        if (p != null) p.addUser(u);
+    public void await(long seq) {
+        if (durable >= seq) return;
+        syncLock.lock();
+        try {
+            if (durable >= seq) return;
+            long upTo;
+            synchronized (this) {
+                upTo = appended;
+                drain();
+                unsynced = 0;
+            }
+            channel.force(false);
+            durable = upTo;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            syncLock.unlock();
+        }
     }
 
-    public void printProjectDashboard(String projectId) {
-        Project p = projects.get(projectId);
-        if (p == null) return;
-        System.out.println("Project: " + p.getName());
-        Map<Severity, Integer> counts = new EnumMap<>(Severity.class);
-        for (Severity sv : Severity.values()) counts.put(sv, 0);
-        for (Issue i : p.getBacklog()) counts.put(i.getSeverity(), counts.get(i.getSeverity()) + 1);
-        for (Severity sv : Severity.values()) System.out.println(sv + ": " + counts.get(sv));
+    private ByteBuffer reserve(int len) {
+        if (buffer.remaining() < len) {
+            try {
+                drain();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return buffer;
     }
 
-    public void printSeverityReport(String projectId) {
-        Project p = projects.get(projectId);
-        if (p == null) return;
-        for (Issue i : p.getBacklog()) {
-            System.out.println(i.getIssueId() + " " + i.getTitle() + " " + i.getSeverity() + " " + i.getStatus());
+    private void drain() throws IOException {
+        buffer.flip();
+        write(buffer);
+        buffer.clear();
+    }
+
+    private void write(ByteBuffer b) throws IOException {
+        while (b.hasRemaining()) channel.write(b);
+    }
+
+    public void sync() {
+        long upTo;
+        synchronized (this) {
+            upTo = appended;
         }
+        await(upTo);
     }
 
-    public void printAllIssues() {
-        for (Issue i : issues.values()) i.display();
+    public void reset() throws IOException {
+        syncLock.lock();
+        try {
+            synchronized (this) {
+                buffer.clear();
+                channel.truncate(0);
+                channel.position(0);
+                channel.force(true);
+                unsynced = 0;
+                durable = appended;
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (flusher != null) flusher.interrupt();
+        sync();
+        syncLock.lock();
+        try {
+            synchronized (this) {
+                channel.close();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    static long replay(Path path, TrackerService ts) throws IOException {
+        if (!Files.exists(path)) return 0;
+        ByteBuffer in;
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            in = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+        }
+        CRC32 check = new CRC32();
+        long valid = 0;
+        while (in.remaining() >= HEADER) {
+            int len = in.getInt();
+            int sum = in.getInt();
+            if (len < 3 || len > in.remaining()) break;
+            ByteBuffer payload = in.slice(in.position(), len);
+            check.reset();
+            check.update(payload.duplicate());
+            if ((int) check.getValue() != sum) break;
+            byte op = payload.get();
+            int code = payload.get();
+            String[] fields = new String[payload.get()];
+            for (int n = 0; n < fields.length; n++) {
+                int flen = payload.getInt();
+                if (flen < 0) continue;
+                byte[] b = new byte[flen];
+                payload.get(b);
+                fields[n] = new String(b, StandardCharsets.UTF_8);
+            }
+            ts.apply(op, code, fields);
+            in.position(in.position() + len);
+            valid = in.position();
+        }
+        return valid;
     }
 }
 
-public class TrackerAppMain {
-    public static void main(String[] args) {
+class Snapshot {
+    private static final int MAGIC = 0x54524b53;
+    private static final int VERSION = 2;
+    private static final int FOOTER = 4 * 4 + 8 * 3;
+
+    private final ByteBuffer map;
+    private final TrackerService ts;
+    private final int issueCount;
+    private final long tablePos;
+    private final long sortedPos;
+    private final String[] projectIds;
+    private final int[] projectFirst;
+    private final int[] projectCount;
+    private final Map<String, Integer> projectOrdinals = new HashMap<>();
+    private final AtomicIntegerArray hydrated;
+    private final Object[] locks;
+    private final int orphanFirst;
+
+    private Snapshot(ByteBuffer map, TrackerService ts) {
+        this.map = map;
+        this.ts = ts;
+        int end = map.limit();
+        if (end < FOOTER + 4 || map.getInt(0) != MAGIC || map.getInt(end - FOOTER) != MAGIC || map.getInt(end - FOOTER + 4) != VERSION) {
+            throw new IllegalStateException("not a tracker snapshot");
+        }
+        int userCount = map.getInt(end - FOOTER + 8);
+        this.issueCount = map.getInt(end - FOOTER + 12);
+        long projectsPos = map.getLong(end - FOOTER + 16);
+        this.tablePos = map.getLong(end - FOOTER + 24);
+        this.sortedPos = map.getLong(end - FOOTER + 32);
+
+        ByteBuffer in = map.duplicate().position(4);
+        for (int n = 0; n < userCount; n++) {
+            Role role = Role.values()[in.get()];
+            String id = str(in), name = str(in), email = str(in), bio = str(in);
+            User u = role == Role.MANAGER ? new Manager(id, name, email) : new User(id, name, role, email);
+            u.setBio(bio);
+            ts.restore(u);
+        }
+        in.position((int) projectsPos);
+        int projectTotal = in.getInt();
+        this.projectIds = new String[projectTotal];
+        this.projectFirst = new int[projectTotal];
+        this.projectCount = new int[projectTotal];
+        this.hydrated = new AtomicIntegerArray(projectTotal);
+        this.locks = new Object[projectTotal];
+        int first = 0;
+        for (int n = 0; n < projectTotal; n++) {
+            Project p = new Project(str(in), str(in), str(in), in.getLong());
+            p.setDescription(str(in));
+            for (int t = in.getInt(); t > 0; t--) {
+                User u = ts.getUser(str(in));
+                if (u != null) p.addUser(u);
+            }
+            projectIds[n] = p.getProjectId();
+            locks[n] = new Object();
+            projectFirst[n] = first;
+            projectCount[n] = in.getInt();
+            first += projectCount[n];
+            projectOrdinals.put(p.getProjectId(), n);
+            ts.restore(p);
+        }
+        this.orphanFirst = first;
+    }
+
+    static Snapshot load(Path path, TrackerService ts) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) throw new IOException("snapshot too large to map: " + ch.size());
+            return new Snapshot(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()), ts);
+        }
+    }
+
+    void hydrate(String projectId) {
+        Integer n = projectOrdinals.get(projectId);
+        if (n != null) hydrate(n);
+    }
+
+    private void hydrate(int n) {
+        if (hydrated.get(n) != 0) return;
+        synchronized (locks[n]) {
+            if (hydrated.get(n) != 0) return;
+            List<Issue> batch = new ArrayList<>(projectCount[n]);
+            for (int k = projectFirst[n], end = k + projectCount[n]; k < end; k++) batch.add(decode(k));
+            Project p = ts.registeredProject(projectIds[n]);
+            p.addIssues(batch);
+            for (Issue i : batch) {
+                if (!ts.restore(i)) p.removeIssue(i);
+            }
+            hydrated.set(n, 1);
+        }
+    }
+
+    void hydrateAll() {
+        for (int n = 0; n < projectIds.length; n++) hydrate(n);
+        for (int k = orphanFirst; k < issueCount; k++) ts.restore(decode(k));
+    }
+
+    Issue materialize(String issueId) {
+        int k = find(issueId.getBytes(StandardCharsets.UTF_8));
+        if (k < 0) return null;
+        if (k >= orphanFirst) {
+            ts.restore(decode(k));
+        } else {
+            int lo = 0, hi = projectFirst.length - 1;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (projectFirst[mid] <= k) lo = mid; else hi = mid - 1;
+            }
+            hydrate(lo);
+        }
+        return ts.registered(issueId);
+    }
+
+    private int find(byte[] id) {
+        int lo = 0, hi = issueCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int k = map.getInt((int) sortedPos + mid * 4);
+            int c = compareId(k, id);
+            if (c == 0) return k;
+            if (c < 0) lo = mid + 1; else hi = mid - 1;
+        }
+        return -1;
+    }
+
+    private int compareId(int k, byte[] id) {
+        int pos = idPos(k);
+        int len = map.getInt(pos);
+        pos += 4;
+        for (int n = 0, m = Math.min(len, id.length); n < m; n++) {
+            int c = Byte.toUnsignedInt(map.get(pos + n)) - Byte.toUnsignedInt(id[n]);
+            if (c != 0) return c;
+        }
+        return len - id.length;
+    }
+
+    private int idPos(int k) { return (int) map.getLong((int) tablePos + k * 8) + 3 + 8; }
+
+    private Issue decode(int k) {
+        ByteBuffer in = map.duplicate().position((int) map.getLong((int) tablePos + k * 8));
+        boolean task = in.get() != 0;
+        Severity sev = Severity.values()[in.get()];
+        Status status = Status.values()[in.get()];
+        long createdAt = in.getLong();
+        String id = str(in), title = str(in), desc = str(in);
+        Issue i = task ? new Task(id, title, desc, sev, createdAt) : new Bug(id, title, desc, sev, createdAt);
+        i.restoreStatus(status);
+        String assignee = str(in);
+        if (assignee != null) i.assignTo(ts.getUser(assignee));
+        for (int n = in.getInt(); n > 0; n--) i.addAttachment(str(in));
+        for (int n = in.getInt(); n > 0; n--) i.addTag(str(in));
+        return i;
+    }
+
+    private static String str(ByteBuffer in) {
+        int len = in.getInt();
+        if (len < 0) return null;
+        byte[] b = new byte[len];
+        in.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    static void write(Path path, Collection<User> users, Collection<Project> projects, Collection<Issue> issues) throws IOException {
+        List<Project> ps = new ArrayList<>(projects);
+        Set<Project> known = Collections.newSetFromMap(new IdentityHashMap<>());
+        known.addAll(ps);
+        List<Issue> order = new ArrayList<>(issues.size());
+        int[] counts = new int[ps.size()];
+        for (int n = 0; n < ps.size(); n++) {
+            Collection<Issue> backlog = ps.get(n).getBacklog();
+            order.addAll(backlog);
+            counts[n] = backlog.size();
+        }
+        for (Issue i : issues) {
+            if (!known.contains(i.getProject())) order.add(i);
+        }
+
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(ch), 1 << 16))) {
+            out.writeInt(MAGIC);
+            for (User u : users) {
+                out.writeByte(u.getRole().ordinal());
+                str(out, u.getId());
+                str(out, u.getName());
+                str(out, u.getEmail());
+                str(out, u.getBio());
+            }
+            long projectsPos = out.size();
+            out.writeInt(ps.size());
+            for (int n = 0; n < ps.size(); n++) {
+                Project p = ps.get(n);
+                str(out, p.getProjectId());
+                str(out, p.getName());
+                str(out, p.getRepoUrl());
+                out.writeLong(p.getCreatedAtNanos());
+                str(out, p.getDescription());
+                Collection<User> team = p.getTeam();
+                out.writeInt(team.size());
+                for (User u : team) str(out, u.getId());
+                out.writeInt(counts[n]);
+            }
+            long[] offsets = new long[order.size()];
+            byte[][] ids = new byte[order.size()][];
+            for (int k = 0; k < offsets.length; k++) {
+                Issue i = order.get(k);
+                offsets[k] = out.size();
+                ids[k] = i.getIssueId().getBytes(StandardCharsets.UTF_8);
+                IssueState st = i.getState();
+                out.writeByte(i instanceof Task ? 1 : 0);
+                out.writeByte(st.getSeverity().ordinal());
+                out.writeByte(st.getStatus().ordinal());
+                out.writeLong(i.getCreatedAtNanos());
+                out.writeInt(ids[k].length);
+                out.write(ids[k]);
+                str(out, st.getTitle());
+                str(out, st.getDescription());
+                str(out, st.getAssignee() == null ? null : st.getAssignee().getId());
+                List<String> attachments = i.getAttachments();
+                out.writeInt(attachments.size());
+                for (String a : attachments) str(out, a);
+                Set<String> tags = i.getTags();
+                out.writeInt(tags.size());
+                for (String t : tags) str(out, t);
+            }
+            long tablePos = out.size();
+            for (long off : offsets) out.writeLong(off);
+            long sortedPos = out.size();
+            Integer[] sorted = new Integer[ids.length];
+            for (int k = 0; k < sorted.length; k++) sorted[k] = k;
+            Arrays.sort(sorted, (x, y) -> Arrays.compareUnsigned(ids[x], ids[y]));
+            for (Integer k : sorted) out.writeInt(k);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(users.size());
+            out.writeInt(order.size());
+            out.writeLong(projectsPos);
+            out.writeLong(tablePos);
+            out.writeLong(sortedPos);
+            out.flush();
+            ch.force(true);
+        }
+    }
+
+    static void syncDirectory(Path dir) throws IOException {
+        try (FileChannel ch = FileChannel.open(dir, StandardOpenOption.READ)) {
+            ch.force(true);
+        }
+    }
+
+    private static void str(DataOutputStream out, String v) throws IOException {
+        if (v == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] b = v.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+}
+
+class TagIndex {
+    private final Map<String, Set<Issue>> postings = new ConcurrentHashMap<>();
+
+    void add(String tag, Issue i) {
+        postings.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(i);
+    }
+
+    void addAll(Issue i) {
+        for (String t : i.getTags()) add(t, i);
+    }
+
+    void removeAll(Issue i) {
+        for (String t : i.getTags()) {
+            Set<Issue> p = postings.get(t);
+            if (p != null) p.remove(i);
+        }
+    }
+
+    private Set<Issue> postings(String tag) {
+        Set<Issue> p = postings.get(tag);
+        return p == null ? Collections.emptySet() : p;
+    }
+
+    public List<Issue> all(Collection<String> tags, String projectId) {
+        if (tags.isEmpty()) return new ArrayList<>();
+        List<Set<Issue>> lists = new ArrayList<>(tags.size());
+        for (String t : tags) lists.add(postings(t));
+        lists.sort(Comparator.comparingInt(Set::size));
+        List<Issue> out = new ArrayList<>();
+        outer:
+        for (Issue i : lists.get(0)) {
+            if (!inProject(i, projectId)) continue;
+            for (int n = 1; n < lists.size(); n++) {
+                if (!lists.get(n).contains(i)) continue outer;
+            }
+            out.add(i);
+        }
+        return out;
+    }
+
+    public List<Issue> any(Collection<String> tags, String projectId) {
+        Set<Issue> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Issue> out = new ArrayList<>();
+        for (String t : tags) {
+            for (Issue i : postings(t)) {
+                if (inProject(i, projectId) && seen.add(i)) out.add(i);
+            }
+        }
+        return out;
+    }
+
+    public List<Issue> query(String expr, String projectId) {
+        Set<Issue> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Issue> out = new ArrayList<>();
+        for (String group : expr.trim().split("\\s+OR\\s+")) {
+            List<String> terms = new ArrayList<>();
+            for (String t : group.trim().split("\\s+AND\\s+")) {
+                if (!t.isBlank()) terms.add(t.trim());
+            }
+            for (Issue i : all(terms, projectId)) {
+                if (seen.add(i)) out.add(i);
+            }
+        }
+        return out;
+    }
+
+    private static boolean inProject(Issue i, String projectId) {
+        if (projectId == null) return true;
+        Project p = i.getProject();
+        return p != null && p.getProjectId().equals(projectId);
+    }
+}
+
+class SearchIndex {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_WEIGHT = 2;
+
+    private final Map<String, Map<Issue, Integer>> postings = new HashMap<>();
+    private final Map<Issue, Integer> lengths = new HashMap<>();
+    private long totalLength;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    static List<String> tokenize(String text) {
+        List<String> out = new ArrayList<>();
+        if (text == null) return out;
+        int start = -1;
+        for (int n = 0, len = text.length(); n <= len; n++) {
+            boolean word = n < len && Character.isLetterOrDigit(text.charAt(n));
+            if (word && start < 0) {
+                start = n;
+            } else if (!word && start >= 0) {
+                out.add(text.substring(start, n).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return out;
+    }
+
+    private static Map<String, Integer> terms(String title, String description) {
+        Map<String, Integer> tf = new HashMap<>();
+        for (String t : tokenize(title)) tf.merge(t, TITLE_WEIGHT, Integer::sum);
+        for (String t : tokenize(description)) tf.merge(t, 1, Integer::sum);
+        return tf;
+    }
+
+    void add(Issue i) { update(i, null, null, i.getTitle(), i.getDescription()); }
+
+    void remove(Issue i) { update(i, i.getTitle(), i.getDescription(), null, null); }
+
+    void update(Issue i, String oldTitle, String oldDescription, String title, String description) {
+        Map<String, Integer> before = terms(oldTitle, oldDescription);
+        Map<String, Integer> after = terms(title, description);
+        lock.writeLock().lock();
+        try {
+            for (String t : before.keySet()) {
+                Map<Issue, Integer> docs = postings.get(t);
+                if (docs != null && docs.remove(i) != null && docs.isEmpty()) postings.remove(t);
+            }
+            Integer oldLen = lengths.remove(i);
+            if (oldLen != null) totalLength -= oldLen;
+            if (title == null && description == null) return;
+            int len = 0;
+            for (Map.Entry<String, Integer> e : after.entrySet()) {
+                postings.computeIfAbsent(e.getKey(), k -> new HashMap<>()).put(i, e.getValue());
+                len += e.getValue();
+            }
+            lengths.put(i, len);
+            totalLength += len;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Issue> search(String query, String projectId, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty() || limit <= 0) return new ArrayList<>();
+        Map<Issue, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int docs = lengths.size();
+            double avgLength = docs == 0 ? 1 : (double) totalLength / docs;
+            for (String t : terms) {
+                Map<Issue, Integer> hits = postings.get(t);
+                if (hits == null) continue;
+                double idf = Math.log(1 + (docs - hits.size() + 0.5) / (hits.size() + 0.5));
+                for (Map.Entry<Issue, Integer> e : hits.entrySet()) {
+                    Issue i = e.getKey();
+                    if (projectId != null && (i.getProject() == null || !i.getProject().getProjectId().equals(projectId))) continue;
+                    double tf = e.getValue();
+                    double norm = K1 * (1 - B + B * lengths.get(i) / avgLength);
+                    scores.merge(i, idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        PriorityQueue<Map.Entry<Issue, Double>> top = new PriorityQueue<>(limit + 1, Map.Entry.comparingByValue());
+        for (Map.Entry<Issue, Double> e : scores.entrySet()) {
+            top.add(e);
+            if (top.size() > limit) top.poll();
+        }
+        List<Issue> out = new ArrayList<>(top.size());
+        while (!top.isEmpty()) out.add(top.poll().getKey());
+        Collections.reverse(out);
+        return out;
+    }
+}
+
+abstract class IssueEvent {
+    private final Issue issue;
+
+    IssueEvent(Issue issue) { this.issue = issue; }
+
+    public Issue getIssue() { return issue; }
+}
+
+class IssueCreated extends IssueEvent {
+    IssueCreated(Issue issue) { super(issue); }
+}
+
+class StatusChanged extends IssueEvent {
+    private final Status from;
+    private final Status to;
+
+    StatusChanged(Issue issue, Status from, Status to) {
+        super(issue);
+        this.from = from;
+        this.to = to;
+    }
+
+    public Status getFrom() { return from; }
+    public Status getTo() { return to; }
+}
+
+class SeverityChanged extends IssueEvent {
+    private final Severity from;
+    private final Severity to;
+
+    SeverityChanged(Issue issue, Severity from, Severity to) {
+        super(issue);
+        this.from = from;
+        this.to = to;
+    }
+
+    public Severity getFrom() { return from; }
+    public Severity getTo() { return to; }
+}
+
+class Assigned extends IssueEvent {
+    private final User from;
+    private final User to;
+
+    Assigned(Issue issue, User from, User to) {
+        super(issue);
+        this.from = from;
+        this.to = to;
+    }
+
+    public User getFrom() { return from; }
+    public User getTo() { return to; }
+}
+
+class Tagged extends IssueEvent {
+    private final String tag;
+
+    Tagged(Issue issue, String tag) {
+        super(issue);
+        this.tag = tag;
+    }
+
+    public String getTag() { return tag; }
+}
+
+class AttachmentAdded extends IssueEvent {
+    private final String attachment;
+
+    AttachmentAdded(Issue issue, String attachment) {
+        super(issue);
+        this.attachment = attachment;
+    }
+
+    public String getAttachment() { return attachment; }
+}
+
+interface IssueEventSubscriber {
+    void onEvents(List<IssueEvent> batch);
+}
+
+class EventBus implements Closeable {
+    private final IssueEvent[] ring;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final int maxBatch;
+    private final long idleParkNanos;
+    private final AtomicLong next = new AtomicLong();
+    private volatile long consumed = -1;
+    private final List<IssueEventSubscriber> subscribers = new CopyOnWriteArrayList<>();
+    private volatile Thread dispatcher;
+    private volatile boolean closed;
+
+    EventBus(int capacity, int maxBatch, long idleParkNanos) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.ring = new IssueEvent[size];
+        this.published = new AtomicLongArray(size);
+        for (int n = 0; n < size; n++) published.set(n, -1);
+        this.mask = size - 1;
+        this.maxBatch = maxBatch;
+        this.idleParkNanos = idleParkNanos;
+    }
+
+    public boolean hasSubscribers() { return !subscribers.isEmpty(); }
+
+    public synchronized void subscribe(IssueEventSubscriber s) {
+        if (closed) throw new IllegalStateException("event bus is closed");
+        subscribers.add(s);
+        if (dispatcher != null) return;
+        Thread t = new Thread(this::dispatch, "issue-event-bus");
+        t.setDaemon(true);
+        dispatcher = t;
+        t.start();
+    }
+
+    public void unsubscribe(IssueEventSubscriber s) { subscribers.remove(s); }
+
+    // Events published after close() are dropped.
+    public void publish(IssueEvent e) {
+        if (closed) return;
+        long seq = next.getAndIncrement();
+        while (seq - ring.length > consumed) {
+            if (closed) return;
+            if (dispatcher == null) drain();
+            else LockSupport.parkNanos(1_000);
+        }
+        int slot = (int) seq & mask;
+        ring[slot] = e;
+        published.set(slot, seq);
+    }
+
+    public synchronized int drain() {
+        int delivered = 0;
+        List<IssueEvent> batch = new ArrayList<>(Math.min(maxBatch, ring.length));
+        for (;;) {
+            long seq = consumed + 1;
+            while (batch.size() < maxBatch && published.get((int) seq & mask) == seq) {
+                int slot = (int) seq & mask;
+                batch.add(ring[slot]);
+                ring[slot] = null;
+                seq++;
+            }
+            if (batch.isEmpty()) return delivered;
+            for (IssueEventSubscriber s : subscribers) {
+                try {
+                    s.onEvents(Collections.unmodifiableList(batch));
+                } catch (RuntimeException ex) {
+                    Thread t = Thread.currentThread();
+                    t.getUncaughtExceptionHandler().uncaughtException(t, ex);
+                }
+            }
+            consumed = seq - 1;
+            delivered += batch.size();
+            batch = new ArrayList<>(batch.size());
+        }
+    }
+
+    // Backs off while idle and exits once the last subscriber leaves; subscribe() starts a new dispatcher.
+    private void dispatch() {
+        long park = idleParkNanos;
+        while (!Thread.currentThread().isInterrupted()) {
+            if (drain() > 0) {
+                park = idleParkNanos;
+                continue;
+            }
+            synchronized (this) {
+                if (closed || subscribers.isEmpty()) {
+                    if (dispatcher == Thread.currentThread()) dispatcher = null;
+                    return;
+                }
+            }
+            LockSupport.parkNanos(park);
+            park = Math.min(park * 2, idleParkNanos * 64);
+        }
+    }
+
+    @Override
+    public void close() {
+        Thread t;
+        synchronized (this) {
+            closed = true;
+            t = dispatcher;
+            dispatcher = null;
+        }
+        if (t != null) t.interrupt();
+        drain();
+    }
+}
+
+class Workload {
+    private final long[] counts;
+    private final long openWeight;
+
+    Workload(long[] counts, long openWeight) {
+        this.counts = counts.clone();
+        this.openWeight = openWeight;
+    }
+
+    public long count(Status st) { return counts[st.ordinal()]; }
+    public long openWeight() { return openWeight; }
+    public long open() { return count(Status.NEW) + count(Status.IN_PROGRESS); }
+
+    public long total() {
+        long n = 0;
+        for (long c : counts) n += c;
+        return n;
+    }
+}
+
+class WorkloadIndex {
+    private final Map<String, Load> loads = new ConcurrentHashMap<>();
+    private volatile Consumer<String> onLoadChanged;
+
+    private static final class Load {
+        final Set<Issue> issues = new LinkedHashSet<>();
+        final long[] byStatus = new long[Status.values().length];
+        long openWeight;
+    }
+
+    static long weight(Severity sv) { return 1L << sv.ordinal(); }
+
+    private static boolean open(Status st) { return st == Status.NEW || st == Status.IN_PROGRESS; }
+
+    void onLoadChanged(Consumer<String> callback) { this.onLoadChanged = callback; }
+
+    void sync(Issue i) {
+        String before = null, after = null;
+        synchronized (i) {
+            IssueState s = i.getState();
+            User u = s.getAssignee();
+            Status st = s.getStatus();
+            Severity sv = s.getSeverity();
+            if (i.workloadUser == u && i.workloadStatus == st && i.workloadSeverity == sv) return;
+            if (i.workloadUser != null) {
+                before = i.workloadUser.getId();
+                unindex(i);
+            }
+            i.workloadUser = u;
+            i.workloadStatus = st;
+            i.workloadSeverity = sv;
+            if (u != null) {
+                after = u.getId();
+                Load l = load(after);
+                synchronized (l) {
+                    l.issues.add(i);
+                    l.byStatus[st.ordinal()]++;
+                    if (open(st)) l.openWeight += weight(sv);
+                }
+            }
+        }
+        Consumer<String> cb = onLoadChanged;
+        if (cb == null) return;
+        if (before != null && !before.equals(after)) cb.accept(before);
+        if (after != null) cb.accept(after);
+    }
+
+    void remove(Issue i) {
+        String before;
+        synchronized (i) {
+            if (i.workloadUser == null) return;
+            before = i.workloadUser.getId();
+            unindex(i);
+            i.workloadUser = null;
+            i.workloadStatus = null;
+            i.workloadSeverity = null;
+        }
+        Consumer<String> cb = onLoadChanged;
+        if (cb != null) cb.accept(before);
+    }
+
+    private void unindex(Issue i) {
+        Load l = load(i.workloadUser.getId());
+        synchronized (l) {
+            l.issues.remove(i);
+            l.byStatus[i.workloadStatus.ordinal()]--;
+            if (open(i.workloadStatus)) l.openWeight -= weight(i.workloadSeverity);
+        }
+    }
+
+    private Load load(String userId) { return loads.computeIfAbsent(userId, k -> new Load()); }
+
+    public long openWeight(String userId) {
+        Load l = loads.get(userId);
+        if (l == null) return 0;
+        synchronized (l) { return l.openWeight; }
+    }
+
+    public List<Issue> assignedTo(String userId) {
+        Load l = loads.get(userId);
+        if (l == null) return new ArrayList<>();
+        synchronized (l) { return new ArrayList<>(l.issues); }
+    }
+
+    public Workload workload(String userId) {
+        Load l = loads.get(userId);
+        if (l == null) return new Workload(new long[Status.values().length], 0);
+        synchronized (l) { return new Workload(l.byStatus, l.openWeight); }
+    }
+}
+
+interface AssignmentStrategy {
+    User choose(Project p, Issue i);
+
+    default void loadChanged(String userId) {}
+}
+
+class LeastLoadedStrategy implements AssignmentStrategy {
+    private final WorkloadIndex workloads;
+    private final Map<Project, Heap> heaps = new IdentityHashMap<>();
+    private final Map<String, Long> versions = new HashMap<>();
+    private final Set<String> changed = ConcurrentHashMap.newKeySet();
+
+    private static final class Entry {
+        final User user;
+        final long load;
+        final long version;
+
+        Entry(User user, long load, long version) {
+            this.user = user;
+            this.load = load;
+            this.version = version;
+        }
+    }
+
+    private static final class Heap {
+        final PriorityQueue<Entry> queue = new PriorityQueue<>(
+                Comparator.<Entry>comparingLong(e -> e.load).thenComparing(e -> e.user.getId()));
+        final Map<String, User> members = new HashMap<>();
+        int teamVersion = -1;
+    }
+
+    LeastLoadedStrategy(WorkloadIndex workloads) { this.workloads = workloads; }
+
+    @Override
+    public synchronized User choose(Project p, Issue i) {
+        applyChanges();
+        Heap h = heaps.computeIfAbsent(p, k -> new Heap());
+        if (h.teamVersion != p.getTeamVersion()) rebuild(p, h);
+        for (;;) {
+            Entry e = h.queue.peek();
+            if (e == null) return null;
+            if (e.version == versions.getOrDefault(e.user.getId(), 0L)) return e.user;
+            h.queue.poll();
+        }
+    }
+
+    private void rebuild(Project p, Heap h) {
+        h.teamVersion = p.getTeamVersion();
+        h.queue.clear();
+        h.members.clear();
+        for (User u : p.getTeam()) {
+            if (u.getRole() != Role.DEV || h.members.putIfAbsent(u.getId(), u) != null) continue;
+            h.queue.add(new Entry(u, workloads.openWeight(u.getId()), versions.getOrDefault(u.getId(), 0L)));
+        }
+    }
+
+    // Called inline from every workload change, so it only records the user; choose() applies the batch.
+    @Override
+    public void loadChanged(String userId) { changed.add(userId); }
+
+    private void applyChanges() {
+        if (changed.isEmpty()) return;
+        Iterator<String> it = changed.iterator();
+        while (it.hasNext()) {
+            String userId = it.next();
+            it.remove();
+            long version = versions.merge(userId, 1L, Long::sum);
+            long load = workloads.openWeight(userId);
+            for (Heap h : heaps.values()) {
+                User u = h.members.get(userId);
+                if (u == null) continue;
+                h.queue.add(new Entry(u, load, version));
+                if (h.queue.size() > 4 * h.members.size() + 16) compact(h);
+            }
+        }
+    }
+
+    private void compact(Heap h) {
+        List<Entry> live = new ArrayList<>(h.members.size());
+        for (Entry e : h.queue) {
+            if (e.version == versions.getOrDefault(e.user.getId(), 0L)) live.add(e);
+        }
+        h.queue.clear();
+        h.queue.addAll(live);
+    }
+}
+
+class CreationIndex {
+    private static final long BUCKET_MILLIS = 3_600_000L;
+
+    private final ConcurrentSkipListMap<Long, Bucket> buckets = new ConcurrentSkipListMap<>();
+
+    private static final class Bucket {
+        long[] times = new long[16];
+        Issue[] issues = new Issue[16];
+        int size;
+        boolean sorted = true;
+
+        synchronized void add(long t, Issue i) {
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                issues = Arrays.copyOf(issues, size * 2);
+            }
+            if (size > 0 && times[size - 1] > t) sorted = false;
+            times[size] = t;
+            issues[size] = i;
+            size++;
+        }
+
+        private void sort() {
+            if (sorted) return;
+            Integer[] order = new Integer[size];
+            for (int n = 0; n < size; n++) order[n] = n;
+            long[] t = times;
+            Arrays.sort(order, Comparator.comparingLong(n -> t[n]));
+            long[] st = new long[times.length];
+            Issue[] si = new Issue[issues.length];
+            for (int n = 0; n < size; n++) {
+                st[n] = times[order[n]];
+                si[n] = issues[order[n]];
+            }
+            times = st;
+            issues = si;
+            sorted = true;
+        }
+
+        synchronized void remove(long t, Issue i) {
+            sort();
+            for (int n = lowerBound(t); n < size && times[n] == t; n++) {
+                if (issues[n] != i) continue;
+                System.arraycopy(times, n + 1, times, n, size - n - 1);
+                System.arraycopy(issues, n + 1, issues, n, size - n - 1);
+                issues[--size] = null;
+                return;
+            }
+        }
+
+        synchronized void collect(long from, long to, String projectId, List<Issue> out) {
+            sort();
+            for (int n = lowerBound(from); n < size && times[n] < to; n++) {
+                if (CreationIndex.inProject(issues[n], projectId)) out.add(issues[n]);
+            }
+        }
+
+        private int lowerBound(long t) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (times[mid] < t) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+    }
+
+    void add(Issue i) {
+        long t = i.getCreatedAtMillis();
+        buckets.computeIfAbsent(Math.floorDiv(t, BUCKET_MILLIS), k -> new Bucket()).add(t, i);
+    }
+
+    void remove(Issue i) {
+        long t = i.getCreatedAtMillis();
+        Bucket b = buckets.get(Math.floorDiv(t, BUCKET_MILLIS));
+        if (b != null) b.remove(t, i);
+    }
+
+    public List<Issue> between(long fromMillis, long toMillis, String projectId) {
+        List<Issue> out = new ArrayList<>();
+        if (fromMillis >= toMillis) return out;
+        long first = Math.floorDiv(fromMillis, BUCKET_MILLIS), last = Math.floorDiv(toMillis - 1, BUCKET_MILLIS);
+        for (Bucket b : buckets.subMap(first, true, last, true).values()) b.collect(fromMillis, toMillis, projectId, out);
+        return out;
+    }
+
+    static boolean inProject(Issue i, String projectId) {
+        if (projectId == null) return true;
+        Project p = i.getProject();
+        return p != null && p.getProjectId().equals(projectId);
+    }
+}
+
+class IssueStore {
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> userOrdinals = new HashMap<>();
+    private final Map<String, Integer> projectOrdinals = new HashMap<>();
+    private Issue[] rows = new Issue[1024];
+    private byte[] severity = new byte[1024];
+    private byte[] status = new byte[1024];
+    private int[] assignee = new int[1024];
+    private int[] project = new int[1024];
+    private long[] createdAt = new long[1024];
+    private int[] titleStart = new int[1024];
+    private int[] titleLength = new int[1024];
+    private char[] arena = new char[1 << 16];
+    private int arenaSize;
+    private int size;
+    private int deadRows;
+    private int deadChars;
+
+    void add(Issue i) {
+        lock.writeLock().lock();
+        try {
+            if (i.storeRow >= 0) return;
+            if (size == rows.length) grow();
+            int r = size++;
+            i.storeRow = r;
+            rows[r] = i;
+            createdAt[r] = i.getCreatedAtNanos();
+            write(r, i);
+            writeTitle(r, i.getTitle());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void update(Issue i) {
+        lock.writeLock().lock();
+        try {
+            if (i.storeRow >= 0) write(i.storeRow, i);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void updateTitle(Issue i) {
+        lock.writeLock().lock();
+        try {
+            int r = i.storeRow;
+            if (r < 0) return;
+            deadChars += titleLength[r];
+            writeTitle(r, i.getTitle());
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Issue i) {
+        lock.writeLock().lock();
+        try {
+            int r = i.storeRow;
+            if (r < 0) return;
+            rows[r] = null;
+            project[r] = -2;
+            i.storeRow = -1;
+            deadRows++;
+            deadChars += titleLength[r];
+            titleLength[r] = 0;
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void write(int r, Issue i) {
+        IssueState st = i.getState();
+        severity[r] = (byte) st.getSeverity().ordinal();
+        status[r] = (byte) st.getStatus().ordinal();
+        User u = st.getAssignee();
+        assignee[r] = u == null ? -1 : ordinal(userOrdinals, u.getId());
+        Project p = i.getProject();
+        project[r] = p == null ? -1 : ordinal(projectOrdinals, p.getProjectId());
+    }
+
+    private void writeTitle(int r, String title) {
+        int len = title == null ? 0 : title.length();
+        if (arenaSize + len > arena.length) arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaSize + len));
+        if (len > 0) title.getChars(0, len, arena, arenaSize);
+        titleStart[r] = arenaSize;
+        titleLength[r] = len;
+        arenaSize += len;
+    }
+
+    // Removed rows and replaced titles are garbage; once they make up half the store, live rows slide down
+    // over the dead ones and titles are copied into a fresh arena, so churn costs amortized O(1).
+    private void compactIfSparse() {
+        boolean rowsSparse = deadRows > 1024 && deadRows * 2 > size;
+        boolean arenaSparse = deadChars > 1 << 16 && deadChars * 2 > arenaSize;
+        if (!rowsSparse && !arenaSparse) return;
+        char[] packed = new char[Math.max(1 << 16, (arenaSize - deadChars) * 3 / 2)];
+        int w = 0, chars = 0;
+        for (int r = 0; r < size; r++) {
+            Issue i = rows[r];
+            if (i == null) continue;
+            int len = titleLength[r];
+            System.arraycopy(arena, titleStart[r], packed, chars, len);
+            rows[w] = i;
+            severity[w] = severity[r];
+            status[w] = status[r];
+            assignee[w] = assignee[r];
+            project[w] = project[r];
+            createdAt[w] = createdAt[r];
+            titleStart[w] = chars;
+            titleLength[w] = len;
+            i.storeRow = w++;
+            chars += len;
+        }
+        Arrays.fill(rows, w, size, null);
+        size = w;
+        arena = packed;
+        arenaSize = chars;
+        deadRows = 0;
+        deadChars = 0;
+    }
+
+    private static int ordinal(Map<String, Integer> ordinals, String id) {
+        Integer n = ordinals.get(id);
+        if (n == null) {
+            n = ordinals.size();
+            ordinals.put(id, n);
+        }
+        return n;
+    }
+
+    private void grow() {
+        int cap = rows.length * 2;
+        rows = Arrays.copyOf(rows, cap);
+        severity = Arrays.copyOf(severity, cap);
+        status = Arrays.copyOf(status, cap);
+        assignee = Arrays.copyOf(assignee, cap);
+        project = Arrays.copyOf(project, cap);
+        createdAt = Arrays.copyOf(createdAt, cap);
+        titleStart = Arrays.copyOf(titleStart, cap);
+        titleLength = Arrays.copyOf(titleLength, cap);
+    }
+
+    public DashboardSnapshot dashboard(String projectId) {
+        long[] counts = new long[Severity.values().length * Status.values().length];
+        int statuses = Status.values().length;
+        lock.readLock().lock();
+        try {
+            int pid = projectFilter(projectId);
+            if (pid == -3) return new DashboardSnapshot(counts);
+            byte[] sv = severity, st = status;
+            int[] pr = project;
+            for (int r = 0, n = size; r < n; r++) {
+                if (pid >= 0 ? pr[r] == pid : pr[r] != -2) counts[sv[r] * statuses + st[r]]++;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new DashboardSnapshot(counts);
+    }
+
+    public List<Issue> select(String projectId, Severity sv, Status st, String assigneeId, long fromMillis, long toMillis) {
+        List<Issue> out = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int pid = projectFilter(projectId);
+            int uid = assigneeId == null ? -2 : userOrdinals.getOrDefault(assigneeId, -3);
+            if (pid == -3 || uid == -3) return out;
+            int svf = sv == null ? -1 : sv.ordinal(), stf = st == null ? -1 : st.ordinal();
+            long from = nanos(fromMillis), to = nanos(toMillis);
+            for (int r = 0, n = size; r < n; r++) {
+                if (pid >= 0 ? project[r] != pid : project[r] == -2) continue;
+                if (svf >= 0 && severity[r] != svf) continue;
+                if (stf >= 0 && status[r] != stf) continue;
+                if (uid != -2 && assignee[r] != uid) continue;
+                if (createdAt[r] < from || createdAt[r] >= to) continue;
+                out.add(rows[r]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return out;
+    }
+
+    public List<Issue> titleContains(String needle, String projectId) {
+        List<Issue> out = new ArrayList<>();
+        char[] pat = needle.toCharArray();
+        lock.readLock().lock();
+        try {
+            int pid = projectFilter(projectId);
+            if (pid == -3) return out;
+            for (int r = 0, n = size; r < n; r++) {
+                if (pid >= 0 ? project[r] != pid : project[r] == -2) continue;
+                if (indexOf(arena, titleStart[r], titleLength[r], pat) >= 0) out.add(rows[r]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return out;
+    }
+
+    private static int indexOf(char[] a, int start, int len, char[] pat) {
+        outer:
+        for (int n = 0; n <= len - pat.length; n++) {
+            for (int k = 0; k < pat.length; k++) {
+                if (a[start + n + k] != pat[k]) continue outer;
+            }
+            return n;
+        }
+        return -1;
+    }
+
+    private static long nanos(long millis) {
+        if (millis >= Long.MAX_VALUE / 1_000_000L) return Long.MAX_VALUE;
+        if (millis <= Long.MIN_VALUE / 1_000_000L) return Long.MIN_VALUE;
+        return millis * 1_000_000L;
+    }
+
+    private int projectFilter(String projectId) {
+        if (projectId == null) return -1;
+        return projectOrdinals.getOrDefault(projectId, -3);
+    }
+}
+
+class OrgDashboard {
+    private final DashboardSnapshot totals;
+    private final Map<String, Long> assigned;
+    private final int projects;
+
+    OrgDashboard(DashboardSnapshot totals, Map<String, Long> assigned, int projects) {
+        this.totals = totals;
+        this.assigned = Collections.unmodifiableMap(assigned);
+        this.projects = projects;
+    }
+
+    public DashboardSnapshot getTotals() { return totals; }
+    public Map<String, Long> getAssignedCounts() { return assigned; }
+    public long assignedTo(String userId) { return assigned.getOrDefault(userId, 0L); }
+    public int getProjectCount() { return projects; }
+}
+
+class OrgDashboardTask extends RecursiveTask<OrgDashboardTask.Partial> {
+    private static final long serialVersionUID = 1L;
+    private static final int CHUNK = 8192;
+    private static final int STATUSES = Status.values().length;
+
+    static final class Partial {
+        final long[] counts = new long[Severity.values().length * STATUSES];
+        final Map<User, long[]> assigned = new HashMap<>();
+
+        Partial merge(Partial o) {
+            for (int n = 0; n < counts.length; n++) counts[n] += o.counts[n];
+            for (Map.Entry<User, long[]> e : o.assigned.entrySet()) {
+                long[] c = assigned.get(e.getKey());
+                if (c == null) assigned.put(e.getKey(), e.getValue()); else c[0] += e.getValue()[0];
+            }
+            return this;
+        }
+    }
+
+    private final Project[] projects;
+    private final Issue[] backlog;
+    private final int lo;
+    private final int hi;
+
+    OrgDashboardTask(Project[] projects, int lo, int hi) {
+        this.projects = projects;
+        this.backlog = null;
+        this.lo = lo;
+        this.hi = hi;
+    }
+
+    private OrgDashboardTask(Issue[] backlog, int lo, int hi) {
+        this.projects = null;
+        this.backlog = backlog;
+        this.lo = lo;
+        this.hi = hi;
+    }
+
+    @Override
+    protected Partial compute() {
+        if (projects != null) {
+            if (hi - lo == 1) {
+                Issue[] b = projects[lo].getBacklog().issues;
+                return new OrgDashboardTask(b, 0, b.length).compute();
+            }
+            if (hi == lo) return new Partial();
+            int mid = (lo + hi) >>> 1;
+            OrgDashboardTask left = new OrgDashboardTask(projects, lo, mid);
+            left.fork();
+            return new OrgDashboardTask(projects, mid, hi).compute().merge(left.join());
+        }
+        if (hi - lo > CHUNK) {
+            int mid = (lo + hi) >>> 1;
+            OrgDashboardTask left = new OrgDashboardTask(backlog, lo, mid);
+            left.fork();
+            return new OrgDashboardTask(backlog, mid, hi).compute().merge(left.join());
+        }
+        Partial out = new Partial();
+        for (int n = lo; n < hi; n++) {
+            Issue i = backlog[n];
+            IssueState st = i.getState();
+            out.counts[st.getSeverity().ordinal() * STATUSES + st.getStatus().ordinal()]++;
+            User u = st.getAssignee();
+            if (u != null) out.assigned.computeIfAbsent(u, k -> new long[1])[0]++;
+        }
+        return out;
+    }
+
+    static OrgDashboard run(ForkJoinPool pool, Collection<Project> projects) {
+        Project[] ps = projects.toArray(new Project[0]);
+        Partial p = pool.invoke(new OrgDashboardTask(ps, 0, ps.length));
+        Map<String, Long> assigned = new HashMap<>();
+        for (Map.Entry<User, long[]> e : p.assigned.entrySet()) assigned.merge(e.getKey().getId(), e.getValue()[0], Long::sum);
+        return new OrgDashboard(new DashboardSnapshot(p.counts), assigned, ps.length);
+    }
+}
+
+class TrackerService implements IssueListener {
+    private static final int STRIPES = 64;
+
+    private Map<String, Project> projects = new ConcurrentHashMap<>();
+    private Map<String, User> users = new ConcurrentHashMap<>();
+    private Map<String, Issue> issues = new ConcurrentHashMap<>();
+    private final Map<String, Issue> reserved = new ConcurrentHashMap<>();
+    // Journaled mutations hold this shared from applying a change until its record is appended; checkpoint
+    // holds it exclusively, so no operation can fall between the snapshot and the journal it truncates.
+    private final ReentrantReadWriteLock checkpointGate = new ReentrantReadWriteLock();
+    private final ThreadLocal<long[]> deferred = new ThreadLocal<>();
+    private final Object[] stripes = new Object[STRIPES];
+    private final EpochClock clock;
+    private volatile Journal journal;
+    private volatile Snapshot image;
+    private final TagIndex tagIndex = new TagIndex();
+    private final SearchIndex searchIndex = new SearchIndex();
+    private final WorkloadIndex workloads = new WorkloadIndex();
+    private final CreationIndex created = new CreationIndex();
+    private volatile IssueStore store;
+    private volatile AssignmentStrategy assignmentStrategy = new LeastLoadedStrategy(workloads);
+    private final EventBus events = new EventBus(1 << 16, 1024, 100_000);
+
+    public TrackerService() {
+        this(EpochClock.SYSTEM);
+    }
+
+    public TrackerService(EpochClock clock) {
+        this.clock = clock;
+        for (int n = 0; n < STRIPES; n++) stripes[n] = new Object();
+        workloads.onLoadChanged(userId -> assignmentStrategy.loadChanged(userId));
+    }
+
+    public static TrackerService open(Path journalPath, int syncEvery, long flushIntervalMillis) throws IOException {
+        TrackerService ts = new TrackerService();
+        long valid = Journal.replay(journalPath, ts);
+        ts.journal = new Journal(journalPath, valid, syncEvery, flushIntervalMillis);
+        return ts;
+    }
+
+    public static TrackerService open(Path snapshotPath, Path journalPath, int syncEvery, long flushIntervalMillis) throws IOException {
+        TrackerService ts = Files.exists(snapshotPath) ? loadSnapshot(snapshotPath) : new TrackerService();
+        long valid = Journal.replay(journalPath, ts);
+        ts.journal = new Journal(journalPath, valid, syncEvery, flushIntervalMillis);
+        return ts;
+    }
+
+    public static TrackerService loadSnapshot(Path path) throws IOException {
+        TrackerService ts = new TrackerService();
+        ts.image = Snapshot.load(path, ts);
+        return ts;
+    }
+
+    public void writeSnapshot(Path path) throws IOException {
+        hydrateAll();
+        Snapshot.write(path, users.values(), projects.values(), issues.values());
+    }
+
+    // The snapshot is fsynced, renamed into place and its directory fsynced before the journal is truncated,
+    // so a crash at any point leaves either the old snapshot and full journal or the new snapshot.
+    public void checkpoint(Path snapshotPath) throws IOException {
+        Path tmp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        checkpointGate.writeLock().lock();
+        try {
+            writeSnapshot(tmp);
+            Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Snapshot.syncDirectory(snapshotPath.toAbsolutePath().getParent());
+            Journal j = journal;
+            if (j != null) j.reset();
+        } finally {
+            checkpointGate.writeLock().unlock();
+        }
+    }
+
+    public Journal getJournal() { return journal; }
+
+    private Issue issue(String issueId) {
+        Issue i = issues.get(issueId);
+        if (i != null) return i;
+        Snapshot s = image;
+        return s == null ? null : s.materialize(issueId);
+    }
+
+    private Project project(String projectId) {
+        Project p = projects.get(projectId);
+        Snapshot s = image;
+        if (p != null && s != null) s.hydrate(projectId);
+        return p;
+    }
+
+    private void hydrateAll() {
+        Snapshot s = image;
+        if (s == null) return;
+        s.hydrateAll();
+        image = null;
+    }
+
+    void restore(User u) { users.put(u.getId(), u); }
+    void restore(Project p) { projects.put(p.getProjectId(), p); }
+    boolean restore(Issue i) {
+        if (issues.putIfAbsent(i.getIssueId(), i) != null) return false;
+        index(i);
+        tagIndex.addAll(i);
+        workloads.sync(i);
+        return true;
+    }
+
+    private void index(Issue i) {
+        i.setListener(this);
+        searchIndex.add(i);
+        created.add(i);
+        IssueStore st = store;
+        if (st != null) st.add(i);
+    }
+
+    private void register(Issue i) {
+        index(i);
+        replaced(issues.put(i.getIssueId(), i), i);
+        if (events.hasSubscribers()) events.publish(new IssueCreated(i));
+    }
+
+    private void replaced(Issue prev, Issue i) {
+        if (prev != null && prev != i) {
+            prev.setListener(null);
+            searchIndex.remove(prev);
+            tagIndex.removeAll(prev);
+            workloads.remove(prev);
+            created.remove(prev);
+            IssueStore st = store;
+            if (st != null) st.remove(prev);
+        }
+    }
+
+    @Override
+    public void textChanged(Issue i, String oldTitle, String oldDescription) {
+        searchIndex.update(i, oldTitle, oldDescription, i.getTitle(), i.getDescription());
+        IssueStore st = store;
+        if (st != null && !Objects.equals(oldTitle, i.getTitle())) st.updateTitle(i);
+    }
+
+    @Override
+    public void projectChanged(Issue i) {
+        IssueStore st = store;
+        if (st != null) st.update(i);
+    }
+
+    @Override
+    public void stateChanged(Issue i, IssueState old, IssueState now) {
+        workloads.sync(i);
+        IssueStore st = store;
+        if (st != null) st.update(i);
+        if (!events.hasSubscribers()) return;
+        if (old.getSeverity() != now.getSeverity()) events.publish(new SeverityChanged(i, old.getSeverity(), now.getSeverity()));
+        if (old.getStatus() != now.getStatus()) events.publish(new StatusChanged(i, old.getStatus(), now.getStatus()));
+        if (old.getAssignee() != now.getAssignee()) events.publish(new Assigned(i, old.getAssignee(), now.getAssignee()));
+    }
+
+    @Override
+    public void tagged(Issue i, String tag) {
+        tagIndex.add(tag, i);
+        if (events.hasSubscribers()) events.publish(new Tagged(i, tag));
+    }
+
+    @Override
+    public void attached(Issue i, String attachment) {
+        if (events.hasSubscribers()) events.publish(new AttachmentAdded(i, attachment));
+    }
+
+    public EventBus getEventBus() { return events; }
+
+    public synchronized IssueStore enableColumnarStore() {
+        if (store != null) return store;
+        hydrateAll();
+        IssueStore st = new IssueStore();
+        store = st;
+        for (Issue i : issues.values()) st.add(i);
+        return st;
+    }
+
+    public IssueStore getColumnarStore() { return store; }
+    Issue registered(String issueId) { return issues.get(issueId); }
+    Project registeredProject(String projectId) { return projects.get(projectId); }
+
+    private boolean enter() {
+        if (journal == null) return false;
+        checkpointGate.readLock().lock();
+        return true;
+    }
+
+    private void leave(boolean entered) {
+        if (entered) checkpointGate.readLock().unlock();
+    }
+
+    private long log(byte op, int code, String... fields) {
+        Journal j = journal;
+        return j == null ? 0 : j.append(op, code, fields);
+    }
+
+    // Called once the caller has dropped its locks, so concurrent writers share one fsync.
+    private void durable(long seq) {
+        Journal j = journal;
+        if (j == null || seq <= 0) return;
+        long[] d = deferred.get();
+        if (d != null) d[0] = Math.max(d[0], seq);
+        else j.await(seq);
+    }
+
+    // Until flushDeferred(), mutations on this thread only note their journal sequence instead of waiting for it,
+    // so a pipelined batch shares one fsync. Their results must not be reported before flushDeferred() returns.
+    void deferDurability() {
+        if (journal != null) deferred.set(new long[1]);
+    }
+
+    void flushDeferred() {
+        long[] d = deferred.get();
+        if (d == null) return;
+        deferred.remove();
+        durable(d[0]);
+    }
+
+    void apply(byte op, int code, String[] f) {
+        switch (op) {
+            case Journal.CREATE_USER: createUser(f[0], f[1], Role.values()[code], f[2]); break;
+            case Journal.CREATE_PROJECT: createProject(f[0], f[1], f[2], stamp(f)); break;
+            case Journal.CREATE_BUG: createIssue(f[0], f[1], f[2], Severity.values()[code], "bug", stamp(f)); break;
+            case Journal.CREATE_TASK: createIssue(f[0], f[1], f[2], Severity.values()[code], "task", stamp(f)); break;
+            case Journal.ASSIGN_ISSUE: assignIssue(f[0], f[1]); break;
+            case Journal.CHANGE_STATUS: changeStatus(f[0], Status.values()[code]); break;
+            case Journal.SET_SEVERITY: setSeverity(f[0], Severity.values()[code]); break;
+            case Journal.TAG_ISSUE: tagIssue(f[0], f[1]); break;
+            case Journal.ATTACH_TO_ISSUE: attachToIssue(f[0], f[1]); break;
+            case Journal.ADD_ISSUE_TO_PROJECT: {
+                Issue i = issue(f[1]);
+                if (i != null) addIssueToProject(f[0], i);
+                break;
+            }
+            case Journal.ADD_USER_TO_PROJECT: {
+                User u = users.get(f[1]);
+                if (u != null) addUserToProject(f[0], u);
+                break;
+            }
+            default: throw new IllegalStateException("unknown journal op " + op);
+        }
+    }
+
+    private Object lockFor(String issueId) {
+        int h = issueId.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    public Project getProject(String projectId) { return project(projectId); }
+    public User getUser(String userId) { return users.get(userId); }
+    public Issue getIssue(String issueId) { return issue(issueId); }
+
+    public User createUser(String id, String name, Role role, String email) {
+        User u = role == Role.MANAGER ? new Manager(id, name, email) : new User(id, name, role, email);
+        long seq;
+        boolean gated = enter();
+        try {
+            seq = log(Journal.CREATE_USER, role.ordinal(), id, name, email);
+            users.put(id, u);
+        } finally {
+            leave(gated);
+        }
+        durable(seq);
+        return u;
+    }
+
+    private long stamp(String[] f) { return f.length > 3 ? Long.parseLong(f[3]) : clock.epochNanos(); }
+
+    public Project createProject(String pid, String name, String repoUrl) {
+        return createProject(pid, name, repoUrl, clock.epochNanos());
+    }
+
+    private Project createProject(String pid, String name, String repoUrl, long createdAt) {
+        Project p = new Project(pid, name, repoUrl, createdAt);
+        long seq;
+        boolean gated = enter();
+        try {
+            seq = log(Journal.CREATE_PROJECT, 0, pid, name, repoUrl, Long.toString(createdAt));
+            projects.put(pid, p);
+        } finally {
+            leave(gated);
+        }
+        durable(seq);
+        return p;
+    }
+
+    private static byte createOp(Issue i) { return i instanceof Task ? Journal.CREATE_TASK : Journal.CREATE_BUG; }
+
+    private static Issue newIssue(String issueId, String title, String desc, Severity sev, String type, long createdAt) {
+        return "task".equalsIgnoreCase(type)
+                ? new Task(issueId, title, desc, sev, createdAt)
+                : new Bug(issueId, title, desc, sev, createdAt);
+    }
+
+    private long logCreate(Issue i) {
+        return log(createOp(i), i.getSeverity().ordinal(), i.getIssueId(), i.getTitle(), i.getDescription(),
+                Long.toString(i.getCreatedAtNanos()));
+    }
+
+    public Issue createIssue(String issueId, String title, String desc, Severity sev, String type) {
+        return createIssue(issueId, title, desc, sev, type, clock.epochNanos());
+    }
+
+    private Issue createIssue(String issueId, String title, String desc, Severity sev, String type, long createdAt) {
+        Issue i = newIssue(issueId, title, desc, sev, type, createdAt);
+        long seq;
+        boolean gated = enter();
+        try {
+            synchronized (lockFor(issueId)) {
+                seq = logCreate(i);
+                register(i);
+            }
+        } finally {
+            leave(gated);
+        }
+        durable(seq);
+        return i;
+    }
+
+    public List<Issue> createIssues(String projectId, Collection<IssueSpec> specs) {
+        Project p = project(projectId);
+        if (p == null) return Collections.emptyList();
+        Map<String, Issue> batch = new LinkedHashMap<>((int) (specs.size() / 0.75f) + 1);
+        for (IssueSpec spec : specs) {
+            String id = spec.getIssueId();
+            if (id == null || issue(id) != null || batch.containsKey(id)) return Collections.emptyList();
+            batch.put(id, newIssue(id, spec.getTitle(), spec.getDescription(), spec.getSeverity(), spec.getType(), clock.epochNanos()));
+        }
+        List<Issue> created = new ArrayList<>(batch.values());
+        // Ids are reserved off the registry first so overlapping batches fail as a whole; each one is then
+        // published under its stripe lock right after its create records, so no mutation can reach an issue
+        // (or the journal) ahead of its CREATE.
+        for (int n = 0; n < created.size(); n++) {
+            Issue i = created.get(n);
+            if (reserved.putIfAbsent(i.getIssueId(), i) == null && issue(i.getIssueId()) == null) continue;
+            for (int k = 0; k <= n; k++) reserved.remove(created.get(k).getIssueId(), created.get(k));
+            return Collections.emptyList();
+        }
+        long seq = 0;
+        boolean gated = enter();
+        try {
+            for (Issue i : created) index(i);
+            p.addIssues(created);
+            for (Issue i : created) {
+                synchronized (lockFor(i.getIssueId())) {
+                    seq = Math.max(seq, logCreate(i));
+                    seq = Math.max(seq, log(Journal.ADD_ISSUE_TO_PROJECT, 0, projectId, i.getIssueId()));
+                    replaced(issues.put(i.getIssueId(), i), i);
+                }
+                reserved.remove(i.getIssueId(), i);
+            }
+        } finally {
+            leave(gated);
+        }
+        if (events.hasSubscribers()) {
+            for (Issue i : created) events.publish(new IssueCreated(i));
+        }
+        durable(seq);
+        return created;
+    }
+
+    public Issue createIssue(String issueId, String title, String desc, Severity sev) {
+        return createIssue(issueId, title, desc, sev, "bug");
+    }
+
+    public void attachToIssue(String issueId, String attachment) {
+        Issue i = issue(issueId);
+        if (i == null) return;
+        long seq;
+        boolean gated = enter();
+        try {
+            synchronized (lockFor(issueId)) {
+                i.addAttachment(attachment);
+                seq = log(Journal.ATTACH_TO_ISSUE, 0, issueId, attachment);
+            }
+        } finally {
+            leave(gated);
+        }
+        durable(seq);
+    }
+
+    public void tagIssue(String issueId, String tag) {
+        Issue i = issue(issueId);
+        if (i == null) return;
+        long seq;
+        boolean gated = enter();
+        try {
+            synchronized (lockFor(issueId)) {
+                i.addTag(tag);
+                seq = log(Journal.TAG_ISSUE, 0, issueId, tag);
+            }
+        } finally {
+            leave(gated);
+        }
+        durable(seq);
+    }
+
+    public boolean assignIssue(String issueId, String userId) {
+        return accepted(assignIssue(issueId, userId, Issue.ANY_VERSION));
+    }
+
+    // Versioned mutations return STALE rather than retrying when expectedVersion is out of date. They are not
+    // lock-free: like every mutation here they wait on the issue's stripe lock, shared with other issues by hash.
+    public TransitionResult assignIssue(String issueId, String userId, long expectedVersion) {
+        Issue i = issue(issueId);
+        User u = users.get(userId);
+        if (i == null || u == null) return TransitionResult.NOT_FOUND;
+        return commit(issueId, () -> i.assignTo(u, Status.IN_PROGRESS, expectedVersion), Journal.ASSIGN_ISSUE, 0, issueId, userId);
+    }
+
+    public void setAssignmentStrategy(AssignmentStrategy strategy) { this.assignmentStrategy = strategy; }
+
+    public User autoAssign(String issueId) {
+        Issue i = issue(issueId);
+        if (i == null || i.getProject() == null) return null;
+        User u = assignmentStrategy.choose(i.getProject(), i);
+        return u != null && assignIssue(issueId, u.getId()) ? u : null;
+    }
+
+    public boolean changeStatus(String issueId, Status s) {
+        return accepted(changeStatus(issueId, s, Issue.ANY_VERSION));
+    }
+
+    public TransitionResult changeStatus(String issueId, Status s, long expectedVersion) {
+        Issue i = issue(issueId);
+        if (i == null) return TransitionResult.NOT_FOUND;
+        return commit(issueId, () -> i.setStatus(s, expectedVersion), Journal.CHANGE_STATUS, s.ordinal(), issueId);
+    }
+
+    public boolean setSeverity(String issueId, Severity s) {
+        return accepted(setSeverity(issueId, s, Issue.ANY_VERSION));
+    }
+
+    public TransitionResult setSeverity(String issueId, Severity s, long expectedVersion) {
+        Issue i = issue(issueId);
+        if (i == null) return TransitionResult.NOT_FOUND;
+        return commit(issueId, () -> i.setSeverity(s, expectedVersion), Journal.SET_SEVERITY, s.ordinal(), issueId);
+    }
+
+    private static boolean accepted(TransitionResult r) { return r == TransitionResult.APPLIED || r == TransitionResult.UNCHANGED; }
+
+    // Every issue mutation is serialized by its stripe lock (one of STRIPES, shared by hash), which keeps listener
+    // delivery and journal records in commit order for each issue; the CAS inside only does the version check.
+    private TransitionResult commit(String issueId, Supplier<TransitionResult> change, byte op, int code, String... fields) {
+        long[] seq = new long[1];
+        TransitionResult r = commit(seq, issueId, change, op, code, fields);
+        durable(seq[0]);
+        return r;
+    }
+
+    // Raises seq[0] to the journal sequence of an applied change and leaves awaiting it to the caller.
+    private TransitionResult commit(long[] seq, String issueId, Supplier<TransitionResult> change, byte op, int code, String... fields) {
+        boolean gated = enter();
+        try {
+            synchronized (lockFor(issueId)) {
+                TransitionResult r = change.get();
+                if (r == TransitionResult.APPLIED) seq[0] = Math.max(seq[0], log(op, code, fields));
+                return r;
+            }
+        } finally {
+            leave(gated);
+        }
+    }
+
+    // Each item is validated and applied under its stripe lock; the batch then waits for a single fsync.
+    public Map<String, TransitionResult> changeStatuses(Map<String, Status> changes) {
+        Map<String, TransitionResult> results = new LinkedHashMap<>((int) (changes.size() / 0.75f) + 1);
+        long[] seq = new long[1];
+        for (Map.Entry<String, Status> e : changes.entrySet()) {
+            String id = e.getKey();
+            Status s = e.getValue();
+            Issue i = issue(id);
+            results.put(id, i == null ? TransitionResult.NOT_FOUND
+                    : commit(seq, id, () -> i.setStatus(s, Issue.ANY_VERSION), Journal.CHANGE_STATUS, s.ordinal(), id));
+        }
+        durable(seq[0]);
+        return results;
+    }
+
+    // Approval is a status change made on the manager's authority, so it is journaled as one.
+    public boolean approveIssue(String userId, String issueId) {
+        Issue i = issue(issueId);
+        User u = users.get(userId);
+        if (i == null || u == null) return false;
+        return accepted(commit(issueId, () -> u.approve(i), Journal.CHANGE_STATUS, Status.IN_PROGRESS.ordinal(), issueId));
+    }
+
+    public List<Issue> findByTags(Collection<String> tags, boolean matchAll, String projectId) {
+        hydrateAll();
+        return matchAll ? tagIndex.all(tags, projectId) : tagIndex.any(tags, projectId);
+    }
+
+    public List<Issue> queryTags(String expr, String projectId) {
+        hydrateAll();
+        return tagIndex.query(expr, projectId);
+    }
+
+    public List<Issue> issuesAssignedTo(String userId) {
+        hydrateAll();
+        return workloads.assignedTo(userId);
+    }
+
+    public Workload workload(String userId) {
+        hydrateAll();
+        return workloads.workload(userId);
+    }
+
+    public List<Issue> issuesCreatedBetween(long fromMillis, long toMillis, String projectId) {
+        hydrateAll();
+        return created.between(fromMillis, toMillis, projectId);
+    }
+
+    public List<Issue> search(String query, String projectId, int limit) {
+        hydrateAll();
+        return searchIndex.search(query, projectId, limit);
+    }
+
+    public List<Issue> listBySeverity(String projectId, Severity s) {
+        Project p = project(projectId);
+        if (p == null) return Collections.emptyList();
+        return p.listBySeverity(s);
+    }
+
+    public void addIssueToProject(String projectId, Issue i) {
+        Project p = project(projectId);
+        if (p == null) return;
+        long seq;
+        boolean gated = enter();
+        try {
+            synchronized (lockFor(i.getIssueId())) {
+                p.addIssue(i);
+                seq = log(Journal.ADD_ISSUE_TO_PROJECT, 0, projectId, i.getIssueId());
+            }
+        } finally {
+            leave(gated);
+        }
+        durable(seq);
+    }
+
+    public void addUserToProject(String projectId, User u) {
+        Project p = project(projectId);
+        if (p == null) return;
+        long seq;
+        boolean gated = enter();
+        try {
+            p.addUser(u);
+            seq = log(Journal.ADD_USER_TO_PROJECT, 0, projectId, u.getId());
+        } finally {
+            leave(gated);
+        }
+        durable(seq);
+    }
+
+    public DashboardSnapshot dashboard(String projectId) {
+        Project p = project(projectId);
+        return p == null ? null : p.dashboard();
+    }
+
+    public OrgDashboard orgDashboard() {
+        return orgDashboard(ForkJoinPool.commonPool());
+    }
+
+    public OrgDashboard orgDashboard(ForkJoinPool pool) {
+        hydrateAll();
+        return OrgDashboardTask.run(pool, projects.values());
+    }
+
+    public void printProjectDashboard(String projectId) {
+        print(w -> writeProjectDashboard(projectId, w));
+    }
+
+    public void printSeverityReport(String projectId) {
+        print(w -> writeSeverityReport(projectId, w));
+    }
+
+    public void printAllIssues() {
+        print(this::writeAllIssues);
+    }
+
+    private static void print(Consumer<ReportWriter> report) {
+        ReportWriter w = new ReportWriter(System.out);
+        report.accept(w);
+        w.flush();
+    }
+
+    public void writeProjectDashboard(String projectId, ReportWriter w) {
+        Project p = project(projectId);
+        if (p == null) return;
+        DashboardSnapshot d = p.dashboard();
+        w.append("Project: ").append(p.getName()).newLine();
+        for (Severity sv : Severity.values()) w.append(sv).append(": ").append(d.count(sv)).newLine();
+    }
+
+    public void writeSeverityReport(String projectId, ReportWriter w) {
+        Project p = project(projectId);
+        if (p == null) return;
+        for (Issue i : p.getBacklog()) w.issueLine(i);
+    }
+
+    public void writeAllIssues(ReportWriter w) {
+        hydrateAll();
+        for (Issue i : issues.values()) i.writeTo(w);
+    }
+}
+
+class Json {
+    private Json() {}
+
+    static Map<String, String> parseObject(String s) {
+        Map<String, String> out = new HashMap<>();
+        int[] pos = {skip(s, 0)};
+        expect(s, pos, '{');
+        if (peek(s, pos) == '}') return out;
+        while (true) {
+            String k = string(s, pos);
+            expect(s, pos, ':');
+            pos[0] = skip(s, pos[0]);
+            if (pos[0] < s.length() && s.charAt(pos[0]) == '"') {
+                out.put(k, string(s, pos));
+            } else {
+                int start = pos[0];
+                while (pos[0] < s.length() && ",} \t\r\n".indexOf(s.charAt(pos[0])) < 0) pos[0]++;
+                String v = s.substring(start, pos[0]);
+                if (v.isEmpty()) throw new IllegalArgumentException("missing value for " + k);
+                out.put(k, v.equals("null") ? null : v);
+            }
+            if (peek(s, pos) == '}') return out;
+            expect(s, pos, ',');
+        }
+    }
+
+    private static char peek(String s, int[] pos) {
+        pos[0] = skip(s, pos[0]);
+        if (pos[0] >= s.length()) throw new IllegalArgumentException("unexpected end of json");
+        char c = s.charAt(pos[0]);
+        if (c == '}') pos[0]++;
+        return c;
+    }
+
+    private static void expect(String s, int[] pos, char c) {
+        pos[0] = skip(s, pos[0]);
+        if (pos[0] >= s.length() || s.charAt(pos[0]) != c) throw new IllegalArgumentException("expected '" + c + "' at " + pos[0]);
+        pos[0]++;
+    }
+
+    private static int skip(String s, int p) {
+        while (p < s.length() && Character.isWhitespace(s.charAt(p))) p++;
+        return p;
+    }
+
+    private static String string(String s, int[] pos) {
+        expect(s, pos, '"');
+        StringBuilder b = new StringBuilder();
+        for (int p = pos[0]; p < s.length(); p++) {
+            char c = s.charAt(p);
+            if (c == '"') {
+                pos[0] = p + 1;
+                return b.toString();
+            }
+            if (c != '\\') {
+                b.append(c);
+                continue;
+            }
+            if (++p >= s.length()) break;
+            c = s.charAt(p);
+            switch (c) {
+                case 'n': b.append('\n'); break;
+                case 't': b.append('\t'); break;
+                case 'r': b.append('\r'); break;
+                case 'b': b.append('\b'); break;
+                case 'f': b.append('\f'); break;
+                case 'u':
+                    if (p + 4 >= s.length()) throw new IllegalArgumentException("bad escape");
+                    b.append((char) Integer.parseInt(s.substring(p + 1, p + 5), 16));
+                    p += 4;
+                    break;
+                default: b.append(c);
+            }
+        }
+        throw new IllegalArgumentException("unterminated string");
+    }
+
+    static StringBuilder quote(StringBuilder b, String s) {
+        if (s == null) return b.append("null");
+        b.append('"');
+        for (int n = 0; n < s.length(); n++) {
+            char c = s.charAt(n);
+            switch (c) {
+                case '"': b.append("\\\""); break;
+                case '\\': b.append("\\\\"); break;
+                case '\n': b.append("\\n"); break;
+                case '\r': b.append("\\r"); break;
+                case '\t': b.append("\\t"); break;
+                default:
+                    if (c < 0x20) b.append(String.format("\\u%04x", (int) c)); else b.append(c);
+            }
+        }
+        return b.append('"');
+    }
+
+    static StringBuilder issue(StringBuilder b, Issue i) {
+        IssueState st = i.getState();
+        User a = st.getAssignee();
+        Project p = i.getProject();
+        b.append("{\"id\":");
+        quote(b, i.getIssueId()).append(",\"version\":").append(st.getVersion()).append(",\"title\":");
+        quote(b, st.getTitle()).append(",\"severity\":\"").append(st.getSeverity())
+                .append("\",\"status\":\"").append(st.getStatus()).append("\",\"assignee\":");
+        quote(b, a == null ? null : a.getId()).append(",\"projectId\":");
+        return quote(b, p == null ? null : p.getProjectId()).append(",\"createdAt\":").append(i.getCreatedAtMillis()).append('}');
+    }
+
+    static StringBuilder dashboard(StringBuilder b, DashboardSnapshot d) {
+        b.append("{\"total\":").append(d.total()).append(",\"bySeverity\":{");
+        for (Severity sv : Severity.values()) {
+            if (sv.ordinal() > 0) b.append(',');
+            b.append('"').append(sv).append("\":{");
+            for (Status st : Status.values()) {
+                if (st.ordinal() > 0) b.append(',');
+                b.append('"').append(st).append("\":").append(d.count(sv, st));
+            }
+            b.append('}');
+        }
+        return b.append("}}");
+    }
+}
+
+class TrackerHttpServer implements Closeable {
+    private final TrackerService service;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    TrackerHttpServer(TrackerService service, InetSocketAddress addr, int backlog) throws IOException {
+        this.service = service;
+        this.server = HttpServer.create(addr, backlog);
+        this.executor = requestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/issues", this::issues);
+        server.createContext("/projects", this::projects);
+    }
+
+    // Turns on TCP_NODELAY unless -Dsun.net.httpserver.nodelay says otherwise, since small JSON responses would
+    // otherwise sit out Nagle + delayed ACK (~40ms each). The property is JVM-wide and the JDK reads it once,
+    // when the first HttpServer is created, so this only takes effect if nothing has created one yet.
+    public static TrackerHttpServer start(TrackerService service, int port) throws IOException {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) System.setProperty("sun.net.httpserver.nodelay", "true");
+        TrackerHttpServer s = new TrackerHttpServer(service, new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 16384);
+        s.server.start();
+        return s;
+    }
+
+    public int getPort() { return server.getAddress().getPort(); }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    static ExecutorService requestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "tracker-http");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    // POST /issues                       {"id","title","description","severity","type","projectId"}
+    // GET  /issues/{id}
+    // POST /issues/{id}/assign           {"userId", "expectedVersion"?}
+    // POST /issues/{id}/status           {"status", "expectedVersion"?}
+    private void issues(HttpExchange ex) throws IOException {
+        try {
+            String[] path = segments(ex);
+            String method = ex.getRequestMethod();
+            if (path.length == 1 && method.equals("POST")) {
+                createIssue(ex, Json.parseObject(body(ex)));
+            } else if (path.length == 2 && method.equals("GET")) {
+                Issue i = service.getIssue(path[1]);
+                if (i == null) send(ex, 404, error("no such issue")); else send(ex, 200, Json.issue(new StringBuilder(), i));
+            } else if (path.length == 3 && method.equals("POST") && path[2].equals("assign")) {
+                Map<String, String> req = Json.parseObject(body(ex));
+                String userId = required(req, "userId");
+                if (service.getUser(userId) == null) send(ex, 404, error("no such user"));
+                else mutation(ex, path[1], service.assignIssue(path[1], userId, expectedVersion(req)));
+            } else if (path.length == 3 && method.equals("POST") && path[2].equals("status")) {
+                Map<String, String> req = Json.parseObject(body(ex));
+                Status s = Status.valueOf(required(req, "status"));
+                mutation(ex, path[1], service.changeStatus(path[1], s, expectedVersion(req)));
+            } else {
+                send(ex, 404, error("no such endpoint"));
+            }
+        } catch (IllegalArgumentException e) {
+            send(ex, 400, error(e.getMessage()));
+        } catch (RuntimeException e) {
+            send(ex, 500, error(String.valueOf(e)));
+        }
+    }
+
+    // GET /projects/{pid}/issues?severity=HIGH
+    // GET /projects/{pid}/dashboard
+    private void projects(HttpExchange ex) throws IOException {
+        try {
+            String[] path = segments(ex);
+            if (!ex.getRequestMethod().equals("GET") || path.length != 3) {
+                send(ex, 404, error("no such endpoint"));
+                return;
+            }
+            if (service.getProject(path[1]) == null) {
+                send(ex, 404, error("no such project"));
+            } else if (path[2].equals("dashboard")) {
+                send(ex, 200, Json.dashboard(new StringBuilder(), service.dashboard(path[1])));
+            } else if (path[2].equals("issues")) {
+                String sev = query(ex, "severity");
+                if (sev == null) throw new IllegalArgumentException("severity is required");
+                StringBuilder b = new StringBuilder("[");
+                for (Issue i : service.listBySeverity(path[1], Severity.valueOf(sev))) {
+                    if (b.length() > 1) b.append(',');
+                    Json.issue(b, i);
+                }
+                send(ex, 200, b.append(']'));
+            } else {
+                send(ex, 404, error("no such endpoint"));
+            }
+        } catch (IllegalArgumentException e) {
+            send(ex, 400, error(e.getMessage()));
+        } catch (RuntimeException e) {
+            send(ex, 500, error(String.valueOf(e)));
+        }
+    }
+
+    private void createIssue(HttpExchange ex, Map<String, String> req) throws IOException {
+        String id = required(req, "id");
+        String title = required(req, "title");
+        String desc = req.getOrDefault("description", "");
+        Severity sev = Severity.valueOf(required(req, "severity"));
+        String type = req.getOrDefault("type", "bug");
+        String pid = req.get("projectId");
+        Issue i;
+        if (pid != null) {
+            if (service.getProject(pid) == null) {
+                send(ex, 404, error("no such project"));
+                return;
+            }
+            List<Issue> created = service.createIssues(pid, List.of(new IssueSpec(id, title, desc, sev, type)));
+            i = created.isEmpty() ? null : created.get(0);
+        } else {
+            i = service.getIssue(id) == null ? service.createIssue(id, title, desc, sev, type) : null;
+        }
+        if (i == null) send(ex, 409, error("issue exists")); else send(ex, 201, Json.issue(new StringBuilder(), i));
+    }
+
+    private void mutation(HttpExchange ex, String issueId, TransitionResult r) throws IOException {
+        Issue i = service.getIssue(issueId);
+        if (i == null) send(ex, 404, error("no such issue"));
+        else if (r == TransitionResult.STALE) send(ex, 409, error("stale version"));
+        else if (r == TransitionResult.REJECTED) send(ex, 409, error("transition rejected"));
+        else send(ex, 200, Json.issue(new StringBuilder(), i));
+    }
+
+    private static long expectedVersion(Map<String, String> req) {
+        String v = req.get("expectedVersion");
+        return v == null ? Issue.ANY_VERSION : Long.parseLong(v);
+    }
+
+    private static String required(Map<String, String> req, String key) {
+        String v = req.get(key);
+        if (v == null) throw new IllegalArgumentException(key + " is required");
+        return v;
+    }
+
+    private static String[] segments(HttpExchange ex) {
+        String p = ex.getRequestURI().getPath();
+        int start = 0, end = p.length();
+        while (start < end && p.charAt(start) == '/') start++;
+        while (end > start && p.charAt(end - 1) == '/') end--;
+        return p.substring(start, end).split("/");
+    }
+
+    private static String query(HttpExchange ex, String key) {
+        String q = ex.getRequestURI().getRawQuery();
+        if (q == null) return null;
+        for (String kv : q.split("&")) {
+            int eq = kv.indexOf('=');
+            if (eq > 0 && kv.substring(0, eq).equals(key)) return URLDecoder.decode(kv.substring(eq + 1), StandardCharsets.UTF_8);
+        }
+        return null;
+    }
+
+    private static String body(HttpExchange ex) throws IOException {
+        try (InputStream in = ex.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static StringBuilder error(String message) {
+        return Json.quote(new StringBuilder("{\"error\":"), message).append('}');
+    }
+
+    private static void send(HttpExchange ex, int code, CharSequence json) throws IOException {
+        byte[] out = json.toString().getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json");
+        ex.sendResponseHeaders(code, out.length);
+        try (OutputStream os = ex.getResponseBody()) {
+            os.write(out);
+        }
+    }
+}
+
+final class BufferPool {
+    private final ConcurrentLinkedQueue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final int size;
+    private final int max;
+
+    BufferPool(int size, int max) {
+        this.size = size;
+        this.max = max;
+    }
+
+    ByteBuffer acquire() {
+        ByteBuffer b = free.poll();
+        if (b == null) return ByteBuffer.allocateDirect(size);
+        pooled.decrementAndGet();
+        return b.clear();
+    }
+
+    void release(ByteBuffer b) {
+        if (b == null || b.capacity() != size) return;
+        if (pooled.incrementAndGet() <= max) free.offer(b); else pooled.decrementAndGet();
+    }
+}
+
+// Frames are [int len][body], len counting body bytes. Request bodies mirror journal records:
+// [byte op][byte code][byte nfields][fields: int len (-1 null) + utf8]. Responses are [byte op][byte result][payload]
+// and come back in request order, so a client may pipeline any number of requests before reading.
+final class Wire {
+    static final byte CHANGE_STATUS = 1;
+    static final byte TAG_ISSUE = 2;
+    static final byte ASSIGN_ISSUE = 3;
+    static final byte CREATE_ISSUE = 4;
+    static final byte ATTACH_TO_ISSUE = 5;
+    static final byte DASHBOARD = 6;
+
+    static final byte FAILED = 0;
+    static final byte OK = 1;
+    static final byte BAD_REQUEST = 2;
+
+    static final int BUFFER = 64 * 1024;
+    static final int CELLS = Severity.values().length * Status.values().length;
+    static final int MAX_RESPONSE = 4 + 2 + 8 * CELLS;
+
+    private Wire() {}
+
+    static String getString(ByteBuffer b) {
+        int n = b.getInt();
+        if (n < 0) return null;
+        if (n > b.remaining()) throw new BufferUnderflowException();
+        byte[] bytes = new byte[n];
+        b.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
+
+class TrackerWireServer implements Closeable {
+    private final TrackerService service;
+    private final ServerSocketChannel server;
+    private final BufferPool pool;
+    private final Worker[] workers;
+    private final Thread acceptor;
+    private volatile boolean closed;
+
+    TrackerWireServer(TrackerService service, InetSocketAddress addr, int workerCount) throws IOException {
+        this.service = service;
+        this.server = ServerSocketChannel.open().bind(addr, 1024);
+        this.pool = new BufferPool(Wire.BUFFER, 2 * 1024);
+        this.workers = new Worker[workerCount];
+        for (int w = 0; w < workerCount; w++) workers[w] = new Worker("tracker-wire-" + w);
+        this.acceptor = new Thread(this::accept, "tracker-wire-accept");
+        acceptor.setDaemon(true);
+    }
+
+    public static TrackerWireServer start(TrackerService service, int port) throws IOException {
+        TrackerWireServer s = new TrackerWireServer(service, new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                Math.max(1, Runtime.getRuntime().availableProcessors()));
+        for (Worker w : s.workers) w.start();
+        s.acceptor.start();
+        return s;
+    }
+
+    public int getPort() { return server.socket().getLocalPort(); }
+
+    private void accept() {
+        int next = 0;
+        while (!closed) {
+            try {
+                SocketChannel ch = server.accept();
+                ch.configureBlocking(false);
+                ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                workers[next++ % workers.length].adopt(ch);
+            } catch (IOException e) {
+                if (!closed) System.err.println("wire accept failed: " + e);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        server.close();
+        for (Worker w : workers) w.shutdown();
+    }
+
+    private final class Conn {
+        final SocketChannel ch;
+        final SelectionKey key;
+        ByteBuffer in = pool.acquire();
+        ByteBuffer out = pool.acquire();
+
+        Conn(SocketChannel ch, SelectionKey key) {
+            this.ch = ch;
+            this.key = key;
+        }
+
+        void close() {
+            key.cancel();
+            try {
+                ch.close();
+            } catch (IOException ignored) {
+            }
+            pool.release(in);
+            pool.release(out);
+            in = out = null;
+        }
+    }
+
+    private final class Worker extends Thread {
+        private final Selector selector;
+        private final ConcurrentLinkedQueue<SocketChannel> adopted = new ConcurrentLinkedQueue<>();
+
+        Worker(String name) throws IOException {
+            super(name);
+            setDaemon(true);
+            selector = Selector.open();
+        }
+
+        void adopt(SocketChannel ch) {
+            adopted.add(ch);
+            selector.wakeup();
+        }
+
+        void shutdown() throws IOException {
+            interrupt();
+            selector.wakeup();
+            try {
+                join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            for (SelectionKey k : selector.keys()) ((Conn) k.attachment()).close();
+            selector.close();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!isInterrupted()) {
+                    selector.select();
+                    for (SocketChannel ch; (ch = adopted.poll()) != null; ) {
+                        SelectionKey k = ch.register(selector, SelectionKey.OP_READ);
+                        k.attach(new Conn(ch, k));
+                    }
+                    Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                    while (it.hasNext()) {
+                        SelectionKey k = it.next();
+                        it.remove();
+                        Conn c = (Conn) k.attachment();
+                        try {
+                            if (k.isReadable() && c.ch.read(c.in) < 0) c.close();
+                            else service(c);
+                        } catch (IOException | UncheckedIOException | CancelledKeyException e) {
+                            c.close();
+                        }
+                    }
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                if (!closed) System.err.println("wire worker failed: " + e);
+            }
+        }
+    }
+
+    // Runs every complete frame buffered for the connection, answering into one output buffer that is written
+    // with a single call per batch. The batch's journal records share one fsync, awaited before any response
+    // is written. Reading pauses while responses are backed up.
+    private void service(Conn c) throws IOException {
+        while (true) {
+            ByteBuffer in = c.in, out = c.out;
+            in.flip();
+            service.deferDurability();
+            try {
+                while (in.remaining() >= 4 && out.remaining() >= Wire.MAX_RESPONSE) {
+                    int len = in.getInt(in.position());
+                    if (len <= 0 || len > Wire.BUFFER - 4) {
+                        c.close();
+                        return;
+                    }
+                    if (in.remaining() < 4 + len) break;
+                    int end = in.position() + 4 + len;
+                    in.position(in.position() + 4);
+                    execute(in, end, out);
+                }
+            } finally {
+                service.flushDeferred();
+            }
+            in.compact();
+            out.flip();
+            c.ch.write(out);
+            out.compact();
+            if (out.position() > 0) {
+                c.key.interestOps(SelectionKey.OP_WRITE);
+                return;
+            }
+            c.key.interestOps(SelectionKey.OP_READ);
+            if (!complete(in)) return;
+        }
+    }
+
+    private static boolean complete(ByteBuffer in) {
+        return in.position() >= 4 && in.position() - 4 >= in.getInt(0);
+    }
+
+    private void execute(ByteBuffer in, int end, ByteBuffer out) {
+        int start = out.position();
+        int limit = in.limit();
+        in.limit(end);
+        out.putInt(0);
+        byte op = in.get();
+        out.put(op);
+        try {
+            int code = in.get();
+            String[] f = new String[in.get()];
+            for (int n = 0; n < f.length; n++) f[n] = Wire.getString(in);
+            switch (op) {
+                case Wire.CHANGE_STATUS: out.put(result(service.changeStatus(f[0], Status.values()[code]))); break;
+                case Wire.ASSIGN_ISSUE: out.put(result(service.assignIssue(f[0], f[1]))); break;
+                case Wire.TAG_ISSUE: {
+                    boolean found = service.getIssue(f[0]) != null;
+                    if (found) service.tagIssue(f[0], f[1]);
+                    out.put(result(found));
+                    break;
+                }
+                case Wire.ATTACH_TO_ISSUE: {
+                    boolean found = service.getIssue(f[0]) != null;
+                    if (found) service.attachToIssue(f[0], f[1]);
+                    out.put(result(found));
+                    break;
+                }
+                case Wire.CREATE_ISSUE: out.put(result(createIssue(f, Severity.values()[code]))); break;
+                case Wire.DASHBOARD: {
+                    DashboardSnapshot d = service.dashboard(f[0]);
+                    if (d == null) {
+                        out.put(Wire.FAILED);
+                        break;
+                    }
+                    out.put(Wire.OK);
+                    for (Severity sv : Severity.values())
+                        for (Status st : Status.values()) out.putLong(d.count(sv, st));
+                    break;
+                }
+                default: out.put(Wire.BAD_REQUEST);
+            }
+        } catch (RuntimeException e) {
+            out.position(start + 5);
+            out.put(Wire.BAD_REQUEST);
+        } finally {
+            in.limit(limit);
+            in.position(end);
+        }
+        out.putInt(start, out.position() - start - 4);
+    }
+
+    // fields: id, title, description, type, projectId (nullable)
+    private boolean createIssue(String[] f, Severity sev) {
+        if (f[4] != null) return !service.createIssues(f[4], List.of(new IssueSpec(f[0], f[1], f[2], sev, f[3]))).isEmpty();
+        if (service.getIssue(f[0]) != null) return false;
+        service.createIssue(f[0], f[1], f[2], sev, f[3]);
+        return true;
+    }
+
+    private static byte result(boolean ok) { return ok ? Wire.OK : Wire.FAILED; }
+}
+
+// Blocking client. Mutations are queued and pipelined; sync() flushes them and returns one result per request.
+class TrackerWireClient implements Closeable {
+    private static final int MAX_IN_FLIGHT = 4096;
+
+    private final SocketChannel ch;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(Wire.BUFFER);
+    private final ByteBuffer in = ByteBuffer.allocateDirect(Wire.BUFFER);
+    private byte[] results = new byte[256];
+    private int queued;
+    private int received;
+    private long[] dashboard;
+
+    private TrackerWireClient(SocketChannel ch) { this.ch = ch; }
+
+    public static TrackerWireClient connect(InetSocketAddress addr) throws IOException {
+        SocketChannel ch = SocketChannel.open(addr);
+        ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        return new TrackerWireClient(ch);
+    }
+
+    public TrackerWireClient changeStatus(String issueId, Status s) throws IOException {
+        return request(Wire.CHANGE_STATUS, s.ordinal(), issueId);
+    }
+
+    public TrackerWireClient assignIssue(String issueId, String userId) throws IOException {
+        return request(Wire.ASSIGN_ISSUE, 0, issueId, userId);
+    }
+
+    public TrackerWireClient tagIssue(String issueId, String tag) throws IOException {
+        return request(Wire.TAG_ISSUE, 0, issueId, tag);
+    }
+
+    public TrackerWireClient attachToIssue(String issueId, String attachment) throws IOException {
+        return request(Wire.ATTACH_TO_ISSUE, 0, issueId, attachment);
+    }
+
+    public TrackerWireClient createIssue(String issueId, String title, String desc, Severity sev, String type, String projectId) throws IOException {
+        return request(Wire.CREATE_ISSUE, sev.ordinal(), issueId, title, desc, type, projectId);
+    }
+
+    public int pending() { return queued; }
+
+    public boolean[] sync() throws IOException {
+        send();
+        while (received < queued) receive();
+        boolean[] r = new boolean[queued];
+        for (int n = 0; n < queued; n++) r[n] = results[n] == Wire.OK;
+        queued = received = 0;
+        return r;
+    }
+
+    public DashboardSnapshot dashboard(String projectId) throws IOException {
+        if (queued > 0) throw new IllegalStateException(queued + " requests pending; call sync() first");
+        request(Wire.DASHBOARD, 0, projectId);
+        send();
+        while (received < queued) receive();
+        boolean ok = results[0] == Wire.OK;
+        queued = received = 0;
+        return ok ? new DashboardSnapshot(dashboard) : null;
+    }
+
+    private TrackerWireClient request(byte op, int code, String... fields) throws IOException {
+        byte[][] bytes = new byte[fields.length][];
+        int len = 3;
+        for (int n = 0; n < fields.length; n++) {
+            if (fields[n] != null) bytes[n] = fields[n].getBytes(StandardCharsets.UTF_8);
+            len += 4 + (bytes[n] == null ? 0 : bytes[n].length);
+        }
+        if (len > Wire.BUFFER - 4) throw new IllegalArgumentException("request too large: " + len + " bytes");
+        if (out.remaining() < 4 + len || queued - received >= MAX_IN_FLIGHT) {
+            send();
+            while (received < queued) receive();
+        }
+        out.putInt(len).put(op).put((byte) code).put((byte) fields.length);
+        for (byte[] b : bytes) {
+            if (b == null) {
+                out.putInt(-1);
+            } else {
+                out.putInt(b.length).put(b);
+            }
+        }
+        if (queued == results.length) results = Arrays.copyOf(results, queued * 2);
+        queued++;
+        return this;
+    }
+
+    private void send() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) ch.write(out);
+        out.clear();
+    }
+
+    private void receive() throws IOException {
+        if (ch.read(in) < 0) throw new EOFException("server closed connection");
+        in.flip();
+        while (in.remaining() >= 4 && in.remaining() >= 4 + in.getInt(in.position())) {
+            int end = in.position() + 4 + in.getInt();
+            byte op = in.get();
+            byte result = in.get();
+            if (op == Wire.DASHBOARD && result == Wire.OK) {
+                long[] counts = new long[Wire.CELLS];
+                for (int n = 0; n < counts.length; n++) counts[n] = in.getLong();
+                dashboard = counts;
+            }
+            in.position(end);
+            results[received++] = result;
+        }
+        in.compact();
+    }
+
+    @Override
+    public void close() throws IOException { ch.close(); }
+}
+
+public class TrackerAppMain {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("serve")) {
+            TrackerService service = new TrackerService();
+            TrackerHttpServer s = TrackerHttpServer.start(service, args.length > 1 ? Integer.parseInt(args[1]) : 8080);
+            System.out.println("listening on " + s.getPort());
+            if (args.length > 2) System.out.println("wire protocol on " + TrackerWireServer.start(service, Integer.parseInt(args[2])).getPort());
+            return;
+        }
         TrackerService ts = new TrackerService();
 
         User u1 = ts.createUser("U1", "Alice", Role.QA, "alice@example.com");
@@ -284,8 +3548,7 @@ public class TrackerAppMain {
         ts.printSeverityReport("P1");
         ts.printAllIssues();
 
-        Manager mgr = (Manager) m1;
-        mgr.approveIssue(i1);
+        ts.approveIssue(m1.getId(), "I1");
 
         ts.printAllIssues();
     }
@@ -0,0 +1,378 @@
+package trackers;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// per-operation hot paths are JMH benchmarks: mvn -Pjmh package && java -jar target/benchmarks.jar TrackerJmh
+// java trackers.TrackerBench ingest [issues] [rounds]
+// java trackers.TrackerBench footprint [issues]
+// java trackers.TrackerBench http [clients] [requests] [rounds] [baseUrl]
+// java trackers.TrackerBench wire [connections] [requests] [depth] [rounds]
+// java trackers.TrackerBench stress [threads] [issues] [rounds]
+public class TrackerBench {
+    private static final Severity[] SEVERITIES = Severity.values();
+
+    private static long sink;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("ingest")) {
+            int n = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+            int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+            for (int r = 0; r < rounds; r++) {
+                report("ingest/per-call", n, ingestPerCall(n));
+                report("ingest/batch", n, ingestBatch(n));
+            }
+            return;
+        }
+        if (args.length > 0 && args[0].equals("http")) {
+            int clients = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+            int requests = args.length > 2 ? Integer.parseInt(args[2]) : 200_000;
+            int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+            http(clients, requests, rounds, args.length > 4 ? args[4] : null);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("stress")) {
+            int threads = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+            int issues = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+            int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+            for (int r = 0; r < rounds; r++) {
+                stress(threads, issues);
+                stressReplay(threads, issues);
+            }
+            System.out.printf("stress: %d rounds, %d threads, %,d issues: no lost updates%n", rounds, threads, issues);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("wire")) {
+            int connections = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+            int requests = args.length > 2 ? Integer.parseInt(args[2]) : 1_000_000;
+            int depth = args.length > 3 ? Integer.parseInt(args[3]) : 256;
+            int rounds = args.length > 4 ? Integer.parseInt(args[4]) : 3;
+            wire(connections, requests, depth, rounds);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("footprint")) {
+            footprint(args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000);
+            return;
+        }
+        System.err.println("usage: TrackerBench ingest|footprint|http|wire|stress ... (hot paths: mvn -Pjmh package, TrackerJmh)");
+    }
+
+    static TrackerService populated(int backlog) {
+        TrackerService ts = new TrackerService();
+        ts.createProject("P1", "Bench", "https://repo/bench");
+        for (int u = 0; u < 8; u++) ts.addUserToProject("P1", ts.createUser("U" + u, "dev" + u, Role.DEV, "dev" + u + "@example.com"));
+        List<IssueSpec> specs = new ArrayList<>(backlog);
+        for (int k = 0; k < backlog; k++) specs.add(new IssueSpec("I" + k, "title " + k, "desc", SEVERITIES[k & 3]));
+        ts.createIssues("P1", specs);
+        return ts;
+    }
+
+    static void footprint(int n) {
+        Issue[] keep = new Issue[n];
+        long before = usedHeap();
+        for (int k = 0; k < n; k++) keep[k] = new Bug("I" + k, "title", "desc", Severity.LOW);
+        long untagged = usedHeap() - before;
+        for (int k = 0; k < n; k += 10) keep[k].addTag("tag" + (k & 15));
+        long tagged = usedHeap() - before;
+        System.out.printf("%,d issues: %.1f bytes/issue untagged, %.1f bytes/issue with 10%% tagged (%d dictionary tags)%n",
+                n, (double) untagged / n, (double) tagged / n, TagDictionary.size());
+        sink += keep.length;
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int k = 0; k < 3; k++) System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    static long ingestPerCall(int n) {
+        TrackerService ts = new TrackerService();
+        ts.createProject("P1", "Bench", "https://repo/bench");
+        long t0 = System.nanoTime();
+        for (int k = 0; k < n; k++) {
+            Issue i = ts.createIssue("I" + k, "title " + k, "desc", SEVERITIES[k & 3]);
+            ts.addIssueToProject("P1", i);
+        }
+        return System.nanoTime() - t0;
+    }
+
+    static long ingestBatch(int n) {
+        TrackerService ts = new TrackerService();
+        ts.createProject("P1", "Bench", "https://repo/bench");
+        List<IssueSpec> specs = new ArrayList<>(n);
+        for (int k = 0; k < n; k++) specs.add(new IssueSpec("I" + k, "title " + k, "desc", SEVERITIES[k & 3]));
+        long t0 = System.nanoTime();
+        ts.createIssues("P1", specs);
+        return System.nanoTime() - t0;
+    }
+
+    static void http(int clients, int requests, int rounds, String baseUrl) throws Exception {
+        TrackerHttpServer server = null;
+        if (baseUrl == null) {
+            server = TrackerHttpServer.start(populated(1_000), 0);
+            baseUrl = "http://127.0.0.1:" + server.getPort();
+        }
+        ExecutorService executor = TrackerHttpServer.requestExecutor();
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(executor).build();
+        try {
+            for (int r = 0; r < rounds; r++) httpRound(client, baseUrl, clients, requests, r);
+        } finally {
+            executor.shutdownNow();
+            if (server != null) server.close();
+        }
+    }
+
+    // Each client runs a closed loop: 10% createIssue, 20% assignIssue, 20% changeStatus, 10% listBySeverity, 40% dashboard.
+    private static void httpRound(HttpClient client, String base, int clients, int requests, int round) throws Exception {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong errors = new AtomicLong();
+        CompletableFuture<?>[] loops = new CompletableFuture<?>[clients];
+        long t0 = System.nanoTime();
+        for (int c = 0; c < clients; c++) loops[c] = loop(client, base, round, next, requests, latencies, errors);
+        CompletableFuture.allOf(loops).join();
+        long elapsed = System.nanoTime() - t0;
+        Arrays.sort(latencies);
+        System.out.printf("http %,d clients %,12d req %10.1f ms %,12.0f req/s  p50 %.2f ms  p99 %.2f ms  errors %d%n",
+                clients, requests, elapsed / 1e6, requests * 1e9 / elapsed,
+                latencies[requests / 2] / 1e6, latencies[(int) (requests * 0.99)] / 1e6, errors.get());
+    }
+
+    private static CompletableFuture<Void> loop(HttpClient client, String base, int round, AtomicInteger next,
+                                                int requests, long[] latencies, AtomicLong errors) {
+        int k = next.getAndIncrement();
+        if (k >= requests) return CompletableFuture.completedFuture(null);
+        long start = System.nanoTime();
+        return client.sendAsync(httpRequest(base, round, k), HttpResponse.BodyHandlers.discarding())
+                .handle((rsp, err) -> {
+                    latencies[k] = System.nanoTime() - start;
+                    if (err != null || rsp.statusCode() >= 500) errors.incrementAndGet();
+                    return null;
+                })
+                .thenCompose(v -> loop(client, base, round, next, requests, latencies, errors));
+    }
+
+    private static HttpRequest httpRequest(String base, int round, int k) {
+        int issue = (k * 7919) % 1_000;
+        switch (k % 10) {
+            case 0:
+                return post(base + "/issues", "{\"id\":\"H" + round + "_" + k + "\",\"title\":\"load " + k
+                        + "\",\"severity\":\"" + SEVERITIES[k & 3] + "\",\"projectId\":\"P1\"}");
+            case 1:
+            case 2:
+                return post(base + "/issues/I" + issue + "/assign", "{\"userId\":\"U" + (k & 7) + "\"}");
+            case 3:
+            case 4:
+                return post(base + "/issues/I" + issue + "/status", "{\"status\":\"" + (k % 20 < 10 ? "IN_PROGRESS" : "RESOLVED") + "\"}");
+            case 5:
+                return HttpRequest.newBuilder(URI.create(base + "/projects/P1/issues?severity=CRITICAL")).build();
+            default:
+                return HttpRequest.newBuilder(URI.create(base + "/projects/P1/dashboard")).build();
+        }
+    }
+
+    private static HttpRequest post(String uri, String json) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    static void wire(int connections, int requests, int depth, int rounds) throws Exception {
+        try (TrackerWireServer server = TrackerWireServer.start(populated(10_000), 0)) {
+            InetSocketAddress addr = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort());
+            for (int r = 0; r < rounds; r++) {
+                report("wire/depth 1", requests, wireRound(addr, connections, requests, 1));
+                report("wire/depth " + depth, requests, wireRound(addr, connections, requests, depth));
+            }
+        }
+    }
+
+    // Alternates changeStatus and tagIssue, syncing every depth requests.
+    private static long wireRound(InetSocketAddress addr, int connections, int requests, int depth) throws Exception {
+        Thread[] threads = new Thread[connections];
+        long[] applied = new long[connections];
+        Exception[] failure = new Exception[1];
+        long t0 = System.nanoTime();
+        for (int c = 0; c < connections; c++) {
+            int conn = c;
+            threads[c] = new Thread(() -> {
+                try (TrackerWireClient client = TrackerWireClient.connect(addr)) {
+                    for (int k = conn; k < requests; k += connections) {
+                        String id = "I" + (k * 7919) % 10_000;
+                        if ((k & 1) == 0) client.changeStatus(id, (k & 2) == 0 ? Status.IN_PROGRESS : Status.RESOLVED);
+                        else client.tagIssue(id, "ci" + (k & 15));
+                        if (client.pending() >= depth) {
+                            for (boolean ok : client.sync()) if (ok) applied[conn]++;
+                        }
+                    }
+                    for (boolean ok : client.sync()) if (ok) applied[conn]++;
+                } catch (Exception e) {
+                    failure[0] = e;
+                }
+            });
+            threads[c].start();
+        }
+        for (Thread t : threads) t.join();
+        long t = System.nanoTime() - t0;
+        if (failure[0] != null) throw failure[0];
+        for (long a : applied) sink += a;
+        return t;
+    }
+
+    // Hammers the service from several threads and then checks every derived count against a recount,
+    // so a lost or duplicated update anywhere fails the run.
+    static void stress(int threads, int issues) throws Exception {
+        TrackerService ts = new TrackerService();
+        ts.createProject("P1", "Stress", "https://repo/stress");
+        ts.createProject("P2", "Stress", "https://repo/stress");
+        List<IssueSpec> specs = new ArrayList<>(issues);
+        for (int k = 0; k < issues; k++) specs.add(new IssueSpec("I" + k, "title " + k, "desc", SEVERITIES[k & 3]));
+        long[] applied = new long[threads];
+        BitSet[] tagged = new BitSet[threads];
+        concurrently(threads, t -> {
+            ts.createIssues(t % 2 == 0 ? "P1" : "P2", specs);
+            for (int u = t; u < 64; u += threads)
+                ts.addUserToProject("P1", ts.createUser("U" + u, "dev" + u, Role.DEV, "dev" + u + "@example.com"));
+        });
+        concurrently(threads, t -> {
+            Random rnd = new Random(t);
+            tagged[t] = new BitSet(issues);
+            for (int k = 0; k < issues; k++) {
+                String id = "I" + rnd.nextInt(issues);
+                switch (rnd.nextInt(6)) {
+                    case 0: ts.assignIssue(id, "U" + rnd.nextInt(64)); break;
+                    case 1: ts.changeStatus(id, Status.values()[rnd.nextInt(4)]); break;
+                    case 2: ts.setSeverity(id, SEVERITIES[rnd.nextInt(4)]); break;
+                    case 3:
+                        ts.tagIssue("I" + k, "t" + t);
+                        tagged[t].set(k);
+                        break;
+                    case 4: ts.autoAssign(id); break;
+                    default: {
+                        Issue i = ts.getIssue(id);
+                        if (ts.setSeverity(id, SEVERITIES[rnd.nextInt(4)], i.getVersion()) == TransitionResult.APPLIED) applied[t]++;
+                    }
+                }
+                for (User u : ts.getProject("P1").getTeam()) sink += u.getId().length();
+            }
+        });
+
+        Project p1 = ts.getProject("P1"), p2 = ts.getProject("P2");
+        check(p1.getBacklog().size() + p2.getBacklog().size() == issues, "backlogs hold " + (p1.getBacklog().size() + p2.getBacklog().size()) + " of " + issues);
+        check(p1.getTeam().size() == 64, "team has " + p1.getTeam().size() + " of 64");
+        long[] counts = new long[SEVERITIES.length * Status.values().length];
+        Map<String, long[]> perUser = new HashMap<>();
+        for (Project p : List.of(p1, p2)) {
+            long[] recount = new long[counts.length];
+            for (Issue i : p.getBacklog()) {
+                IssueState st = i.getState();
+                check(i.getProject() == p, i.getIssueId() + " listed in " + p.getProjectId() + " but belongs to " + i.getProject());
+                check(st.getAssignee() == null || st.getStatus() != Status.NEW, i.getIssueId() + " assigned while NEW");
+                recount[st.getSeverity().ordinal() * Status.values().length + st.getStatus().ordinal()]++;
+                if (st.getAssignee() != null) perUser.computeIfAbsent(st.getAssignee().getId(), k -> new long[Status.values().length])[st.getStatus().ordinal()]++;
+            }
+            DashboardSnapshot d = p.dashboard();
+            for (Severity sv : SEVERITIES)
+                for (Status st : Status.values())
+                    check(d.count(sv, st) == recount[sv.ordinal() * Status.values().length + st.ordinal()],
+                            p.getProjectId() + " dashboard " + sv + "/" + st + " drifted");
+        }
+        for (int u = 0; u < 64; u++) {
+            long[] expect = perUser.getOrDefault("U" + u, new long[Status.values().length]);
+            Workload w = ts.workload("U" + u);
+            for (Status st : Status.values()) check(w.count(st) == expect[st.ordinal()], "U" + u + " workload " + st + " drifted");
+        }
+        for (int k = 0; k < issues; k++) {
+            Set<String> tags = ts.getIssue("I" + k).getTags();
+            for (int t = 0; t < threads; t++) check(tags.contains("t" + t) == tagged[t].get(k), "I" + k + " tag t" + t);
+        }
+        for (long a : applied) sink += a;
+    }
+
+    // Mutates ids while the batch that creates them is still being published, then checks that the live
+    // state, the workload index and a replay of the journal all agree.
+    static void stressReplay(int threads, int issues) throws Exception {
+        Path log = Files.createTempFile("stress", ".journal");
+        try {
+            TrackerService ts = TrackerService.open(log, 1 << 20, 0);
+            ts.createProject("P1", "Stress", "https://repo/stress");
+            for (int u = 0; u < 8; u++) ts.addUserToProject("P1", ts.createUser("U" + u, "dev" + u, Role.DEV, "dev" + u + "@example.com"));
+            List<IssueSpec> specs = new ArrayList<>(issues);
+            for (int k = 0; k < issues; k++) specs.add(new IssueSpec("I" + k, "title " + k, "desc", SEVERITIES[k & 3]));
+            AtomicInteger done = new AtomicInteger();
+            concurrently(Math.max(2, threads), t -> {
+                if (t == 0) {
+                    ts.createIssues("P1", specs);
+                    done.set(1);
+                    return;
+                }
+                Random rnd = new Random(t);
+                while (done.get() == 0) {
+                    String id = "I" + (rnd.nextBoolean() ? issues - 1 : issues - 1 - rnd.nextInt(issues));
+                    if (rnd.nextBoolean()) ts.assignIssue(id, "U" + rnd.nextInt(8));
+                    else ts.changeStatus(id, Status.values()[rnd.nextInt(4)]);
+                }
+            });
+            ts.getJournal().close();
+            TrackerService back = TrackerService.open(log, 1 << 20, 0);
+            Map<String, long[]> perUser = new HashMap<>();
+            for (int k = 0; k < issues; k++) {
+                IssueState live = ts.getIssue("I" + k).getState(), replayed = back.getIssue("I" + k).getState();
+                check(live.getStatus() == replayed.getStatus() && live.getSeverity() == replayed.getSeverity()
+                        && Objects.equals(userId(live), userId(replayed)), "I" + k + " replays as " + replayed.getStatus() + "/" + userId(replayed)
+                        + " but is " + live.getStatus() + "/" + userId(live));
+                if (live.getAssignee() != null) perUser.computeIfAbsent(userId(live), u -> new long[Status.values().length])[live.getStatus().ordinal()]++;
+            }
+            for (int u = 0; u < 8; u++) {
+                long[] expect = perUser.getOrDefault("U" + u, new long[Status.values().length]);
+                for (TrackerService s : List.of(ts, back)) {
+                    Workload w = s.workload("U" + u);
+                    for (Status st : Status.values()) check(w.count(st) == expect[st.ordinal()], "U" + u + " workload " + st + " drifted");
+                }
+            }
+            back.getJournal().close();
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+
+    private static String userId(IssueState st) { return st.getAssignee() == null ? null : st.getAssignee().getId(); }
+
+    private static void concurrently(int threads, java.util.function.IntConsumer body) throws Exception {
+        Thread[] ts = new Thread[threads];
+        Throwable[] failure = new Throwable[1];
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            ts[t] = new Thread(() -> {
+                try {
+                    body.accept(id);
+                } catch (Throwable e) {
+                    failure[0] = e;
+                }
+            });
+            ts[t].start();
+        }
+        for (Thread t : ts) t.join();
+        if (failure[0] != null) throw new IllegalStateException("stress worker failed", failure[0]);
+    }
+
+    private static void check(boolean ok, String message) {
+        if (!ok) throw new IllegalStateException("lost update: " + message);
+    }
+
+    static void report(String name, long ops, long nanos) {
+        System.out.printf("%-28s %,12d ops %10.1f ms %,14.0f ops/s%n", name, ops, nanos / 1e6, ops * 1e9 / nanos);
+    }
+}
@@ -0,0 +1,130 @@
+package trackers;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// mvn -Pjmh package && java -jar target/benchmarks.jar TrackerJmh [-p backlog=1000,100000]
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TrackerJmh {
+    private static final Severity[] SEVERITIES = Severity.values();
+    private static final int USERS = 8;
+    private static final int REMOVALS = 1000;
+
+    // A populated service costs ~740 bytes per issue, so 10M (~7.4 GB) does not fit the -Xmx4g fork; run it
+    // explicitly on a machine with the memory: -p backlog=10000000 -jvmArgsAppend -Xmx10g
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int backlog;
+
+    private TrackerService ts;
+    private Project project;
+    private String[] ids;
+    private Issue[] issues;
+    private String[] users;
+    private SplittableRandom rnd;
+    private long created;
+    private PrintStream out;
+
+    @State(Scope.Benchmark)
+    public static class Removals {
+        final Issue[] batch = new Issue[REMOVALS];
+        int[] order;
+
+        @Setup(Level.Trial)
+        public void prepare(TrackerJmh b) {
+            order = new int[b.backlog];
+            for (int k = 0; k < order.length; k++) order[k] = k;
+        }
+
+        // Re-adds the previous batch and picks the next one, so only the removals are timed. The picks are a
+        // partial shuffle, so every timed removal hits a distinct issue that is still in the backlog.
+        @Setup(Level.Invocation)
+        public void refill(TrackerJmh b) {
+            for (Issue i : batch) if (i != null) b.project.addIssue(i);
+            for (int n = 0; n < REMOVALS; n++) {
+                int k = n + b.rnd.nextInt(order.length - n), pick = order[k];
+                order[k] = order[n];
+                order[n] = pick;
+                batch[n] = b.issues[pick];
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void populate() {
+        ts = new TrackerService();
+        project = ts.createProject("P1", "Bench", "https://repo/bench");
+        users = new String[USERS];
+        for (int u = 0; u < USERS; u++) {
+            users[u] = "U" + u;
+            ts.addUserToProject("P1", ts.createUser(users[u], "dev" + u, Role.DEV, "dev" + u + "@example.com"));
+        }
+        List<IssueSpec> specs = new ArrayList<>(backlog);
+        ids = new String[backlog];
+        for (int k = 0; k < backlog; k++) {
+            ids[k] = "I" + k;
+            specs.add(new IssueSpec(ids[k], "title " + k, "desc", SEVERITIES[k & 3]));
+        }
+        issues = ts.createIssues("P1", specs).toArray(new Issue[0]);
+        rnd = new SplittableRandom(42);
+        out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreOut() { System.setOut(out); }
+
+    // Grows the registry by one issue per op; the project backlog is left untouched.
+    @Benchmark
+    public Issue createIssue() {
+        return ts.createIssue("N" + created++, "new issue", "desc", SEVERITIES[(int) created & 3]);
+    }
+
+    @Benchmark
+    public boolean assignIssue() {
+        return ts.assignIssue(ids[rnd.nextInt(backlog)], users[rnd.nextInt(USERS)]);
+    }
+
+    @Benchmark
+    public boolean changeStatus() {
+        return ts.changeStatus(ids[rnd.nextInt(backlog)], rnd.nextBoolean() ? Status.IN_PROGRESS : Status.RESOLVED);
+    }
+
+    @Benchmark
+    public List<Issue> listBySeverity() {
+        return project.listBySeverity(SEVERITIES[rnd.nextInt(4)]);
+    }
+
+    @Benchmark
+    public void printProjectDashboard() {
+        ts.printProjectDashboard("P1");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REMOVALS)
+    public void removeIssue(Removals r) {
+        for (Issue i : r.batch) project.removeIssue(i);
+    }
+}